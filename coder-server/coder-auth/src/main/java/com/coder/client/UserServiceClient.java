@@ -1,7 +1,9 @@
 package com.coder.client;
 
+import com.coder.dto.AuthenticateUserDTO;
 import com.coder.dto.RegisterUserDTO;
 import com.coder.result.Result;
+import com.coder.vo.UserAuthenticationVO;
 import com.coder.vo.UserPermissionVO;
 import com.coder.vo.UserVO;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -25,6 +27,13 @@ public interface UserServiceClient {
     Result<Boolean> validatePassword(@RequestParam("username") String username,
                                      @RequestParam("password") String password);
 
+    /**
+     * 认证用户，一次调用完成密码校验、状态检查并返回用户信息和权限信息
+     * 用户内部接口，密码在请求体中传递
+     */
+    @PostMapping("/internal/user/authenticate")
+    Result<UserAuthenticationVO> authenticate(@RequestBody AuthenticateUserDTO authenticateUserDTO);
+
     /**
      * 根据用户名查询用户信息
      * 注意：需要在用户模块添加这个接口
@@ -1,17 +1,24 @@
 package com.coder.config;
 
+import com.coder.constant.Constants;
 import com.coder.result.ResultCode;
+import com.coder.utils.InternalCallSigner;
+import com.coder.utils.StrUtils;
 import feign.Logger;
 import feign.Request;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import feign.Retryer;
+import feign.Target;
 import feign.codec.ErrorDecoder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.coder.exception.BusinessException;
 
+import java.net.URI;
+
 /**
  * Feign全局配置
  */
@@ -20,11 +27,17 @@ import com.coder.exception.BusinessException;
 public class FeignConfig {
 
     /**
-     * Feign日志级别
+     * 与网关、下游服务共享的内部密钥，用于签名内部调用
+     */
+    @Value("${coder.security.internal-secret:}")
+    private String internalSecret;
+
+    /**
+     * Feign日志级别，不记录请求体（认证、注册请求体中含密码）
      */
     @Bean
     public Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
+        return Logger.Level.HEADERS;
     }
 
     /**
@@ -32,11 +45,19 @@ public class FeignConfig {
      */
     @Bean
     public RequestInterceptor requestInterceptor() {
+        InternalCallSigner signer = StrUtils.isNotBlank(internalSecret) ? new InternalCallSigner(internalSecret) : null;
+        if (signer == null) {
+            log.warn("未配置coder.security.internal-secret，内部服务调用不会被下游服务接受");
+        }
         return new RequestInterceptor() {
             @Override
             public void apply(RequestTemplate template) {
-                // 添加内部服务调用标识
-                template.header("X-Internal-Call", "true");
+                // 添加内部服务调用标识和签名
+                template.header(Constants.Http.X_INTERNAL_CALL, "true");
+                if (signer != null) {
+                    template.header(Constants.Http.X_INTERNAL_SIGNATURE,
+                            signer.sign(template.method(), requestPath(template), System.currentTimeMillis() / 1000));
+                }
                 template.header("X-Service-Name", "coder-auth");
 
                 // 添加请求ID用于链路追踪
@@ -48,6 +69,19 @@ public class FeignConfig {
         };
     }
 
+    /**
+     * 下游收到的请求路径：拦截器执行时模板中还只有方法上的路径，需加上@FeignClient的path前缀
+     */
+    private static String requestPath(RequestTemplate template) {
+        String path = template.path();
+        Target<?> target = template.feignTarget();
+        if (target == null || path.startsWith("http")) {
+            return path;
+        }
+        String basePath = URI.create(target.url()).getRawPath();
+        return basePath == null ? path : basePath + path;
+    }
+
     /**
      * 超时配置
      */
@@ -61,11 +95,12 @@ public class FeignConfig {
 
     /**
      * 重试配置
+     * 只重试幂等请求，validate-password、create等POST请求失败后不重试
      */
     @Bean
     public Retryer retryer() {
-        // 最大重试次数3次，初始间隔100ms，最大间隔1000ms
-        return new Retryer.Default(100, 1000, 3);
+        // 最多尝试3次，初始间隔100ms，最大间隔1000ms，加入随机抖动
+        return new IdempotentRetryer(100, 1000, 3);
     }
 
     /**
@@ -0,0 +1,76 @@
+package com.coder.config;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 幂等感知的Feign重试器
+ * 只重试幂等方法或携带Idempotency-Key请求头的请求，POST等非幂等请求读超时后可能已在下游执行，
+ * 重试会重复创建数据，直接抛出异常。重试间隔指数增长并加入随机抖动。
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+public class IdempotentRetryer implements Retryer {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final Set<Request.HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(
+            Request.HttpMethod.GET, Request.HttpMethod.HEAD, Request.HttpMethod.OPTIONS,
+            Request.HttpMethod.PUT, Request.HttpMethod.DELETE);
+
+    private final long period;
+    private final long maxPeriod;
+    private final int maxAttempts;
+    private int attempt = 1;
+
+    /**
+     * @param period      首次重试间隔（毫秒）
+     * @param maxPeriod   最大重试间隔（毫秒）
+     * @param maxAttempts 最大尝试次数（含首次请求）
+     */
+    public IdempotentRetryer(long period, long maxPeriod, int maxAttempts) {
+        this.period = period;
+        this.maxPeriod = maxPeriod;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (attempt++ >= maxAttempts || !isIdempotent(e)) {
+            throw e;
+        }
+
+        // 指数退避，在[interval/2, interval]之间随机，避免同时失败的请求同时重发
+        long interval = Math.min(maxPeriod, period << Math.min(attempt - 2, 16));
+        long sleep = interval / 2 + ThreadLocalRandom.current().nextLong(interval / 2 + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    @Override
+    public Retryer clone() {
+        return new IdempotentRetryer(period, maxPeriod, maxAttempts);
+    }
+
+    private static boolean isIdempotent(RetryableException e) {
+        if (e.method() != null && IDEMPOTENT_METHODS.contains(e.method())) {
+            return true;
+        }
+        if (!e.hasRequest()) {
+            return false;
+        }
+        Collection<String> keys = e.request().headers().get(IDEMPOTENCY_KEY);
+        return keys != null && !keys.isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.coder.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户认证DTO（用于微服务间调用，密码放在请求体中）
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ApiModel(value = "AuthenticateUserDTO", description = "用户认证请求对象")
+public class AuthenticateUserDTO {
+
+    @ApiModelProperty(value = "用户名", required = true)
+    private String username;
+
+    @ApiModelProperty(value = "密码", required = true)
+    private String password;
+
+    @Override
+    public String toString() {
+        return "AuthenticateUserDTO(username=" + username + ")";
+    }
+}
@@ -1,7 +1,8 @@
 package com.coder.filter;
 
+import com.coder.utils.ErrorResponseTemplate;
 import com.coder.utils.JwtUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.coder.utils.PathPatternMatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationToken;
@@ -17,8 +18,6 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * JWT认证过滤器
@@ -30,6 +29,31 @@ import java.util.Map;
 @Component
 public class JwtAuthenticationFilter extends AuthenticatingFilter {
 
+    /**
+     * 匿名访问路径
+     */
+    private static final PathPatternMatcher ANONYMOUS_PATHS = PathPatternMatcher.compile(
+            "/coder/auth/login/**",
+            "/coder/auth/register/**",
+            "/coder/auth/forgot-password/**",
+            "/coder/auth/reset-password/**",
+            "/coder/auth/send-email-code/**",
+            "/static/**",
+            "/favicon.ico/**",
+            "/swagger-ui/**",
+            "/swagger-resources/**",
+            "/webjars/**",
+            "/v2/api-docs/**",
+            "/doc.html/**",
+            "/actuator/**",
+            "/health/**"
+    );
+
+    /**
+     * 401响应体，预先序列化，只在写出时填入时间戳
+     */
+    private static final ErrorResponseTemplate UNAUTHORIZED = ErrorResponseTemplate.of(401, "未授权，请先登录");
+
     @Resource
     private JwtUtils jwtUtils;
 
@@ -94,32 +118,7 @@ public class JwtAuthenticationFilter extends AuthenticatingFilter {
      * 检查是否是匿名访问路径
      */
     private boolean isAnonymousPath(String requestURI) {
-        String[] anonymousPaths = {
-                "/coder/auth/login",
-                "/coder/auth/register",
-                "/coder/auth/forgot-password",
-                "/coder/auth/reset-password",
-                "/coder/auth/send-email-code",
-                "/static/",
-                "/favicon.ico",
-                "/swagger-ui/",
-                "/swagger-resources/",
-                "/swagger-resources",
-                "/webjars/",
-                "/v2/api-docs",
-                "/doc.html",
-                "/actuator/",
-                "/health"
-        };
-
-        for (String path : anonymousPaths) {
-            if (requestURI.equals(path) ||
-                    (path.endsWith("/") && requestURI.startsWith(path)) ||
-                    (!path.endsWith("/") && requestURI.startsWith(path + "/"))) {
-                return true;
-            }
-        }
-        return false;
+        return ANONYMOUS_PATHS.matches(requestURI);
     }
 
     /**
@@ -160,14 +159,9 @@ public class JwtAuthenticationFilter extends AuthenticatingFilter {
         httpResponse.setHeader("Access-Control-Allow-Headers", "*");
         
         try {
-            Map<String, Object> result = new HashMap<>();
-            result.put("code", 401);
-            result.put("message", "未授权，请先登录");
-            result.put("timestamp", System.currentTimeMillis());
-            
-            ObjectMapper mapper = new ObjectMapper();
-            String json = mapper.writeValueAsString(result);
-            httpResponse.getWriter().write(json);
+            long timestamp = System.currentTimeMillis();
+            httpResponse.setContentLength(UNAUTHORIZED.contentLength(timestamp));
+            UNAUTHORIZED.writeTo(httpResponse.getOutputStream(), timestamp);
         } catch (IOException e) {
             log.error("写入响应失败: {}", e.getMessage());
         }
@@ -1,16 +1,18 @@
 package com.coder.realm;
 
 import com.coder.client.UserServiceClient;
+import com.coder.constant.Constants;
+import com.coder.dto.AuthenticateUserDTO;
 import com.coder.result.Result;
+import com.coder.vo.UserAuthenticationVO;
 import com.coder.vo.UserPermissionVO;
-import com.coder.vo.UserVO;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.shiro.authc.*;
 import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
-import org.apache.shiro.util.ByteSource;
+import org.apache.shiro.subject.SimplePrincipalCollection;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
@@ -41,66 +43,43 @@ public class CustomRealm extends AuthorizingRealm {
 
     /**
      * 授权方法
-     * 获取用户的角色和权限信息
+     * 角色和权限信息在认证时已随认证结果一并返回，无需再次查询用户服务
      *
      * @param principals 用户身份信息
      * @return 授权信息
      */
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(PrincipalCollection principals) {
-        log.debug("CustomRealm开始授权...");
-
-        // 获取用户名
-        String username = (String) principals.getPrimaryPrincipal();
-        log.debug("当前用户: {}", username);
-
-        try {
-            // 查询用户信息
-            Result<UserVO> userResult = userServiceClient.getUserByUsername(username);
-            if (userResult == null || !userResult.isSuccess() || userResult.getData() == null) {
-                log.warn("用户不存在: {}", username);
-                return null;
-            }
-
-            UserVO user = userResult.getData();
-
-            // 查询用户权限信息
-            Result<UserPermissionVO> permissionResult = userServiceClient.getUserPermissionInfo(user.getId());
-            if (permissionResult == null || !permissionResult.isSuccess() || permissionResult.getData() == null) {
-                log.warn("用户权限信息不存在: {}", username);
-                return new SimpleAuthorizationInfo();
-            }
-
-            UserPermissionVO userPermission = permissionResult.getData();
-
-            // 构建授权信息
-            SimpleAuthorizationInfo authInfo = new SimpleAuthorizationInfo();
-
-            // 添加角色
-            if (userPermission.getRoleCodes() != null && !userPermission.getRoleCodes().isEmpty()) {
-                Set<String> roles = new HashSet<>(userPermission.getRoleCodes());
-                authInfo.setRoles(roles);
-                log.debug("用户角色: {}", roles);
-            }
-
-            // 添加权限
-            if (userPermission.getPermissions() != null && !userPermission.getPermissions().isEmpty()) {
-                Set<String> permissions = new HashSet<>(userPermission.getPermissions());
-                authInfo.setStringPermissions(permissions);
-                log.debug("用户权限: {}", permissions);
-            }
+        log.debug("CustomRealm开始授权，当前用户: {}", principals.getPrimaryPrincipal());
 
+        SimpleAuthorizationInfo authInfo = new SimpleAuthorizationInfo();
+        UserAuthenticationVO authentication = principals.oneByType(UserAuthenticationVO.class);
+        UserPermissionVO userPermission = authentication != null ? authentication.getPermissions() : null;
+        if (userPermission == null) {
             return authInfo;
+        }
 
-        } catch (Exception e) {
-            log.error("获取用户授权信息失败: {}", e.getMessage(), e);
-            return null;
+        // 添加角色
+        if (userPermission.getRoleCodes() != null && !userPermission.getRoleCodes().isEmpty()) {
+            Set<String> roles = new HashSet<>(userPermission.getRoleCodes());
+            authInfo.setRoles(roles);
+            log.debug("用户角色: {}", roles);
+        }
+
+        // 添加权限
+        if (userPermission.getPermissions() != null && !userPermission.getPermissions().isEmpty()) {
+            Set<String> permissions = new HashSet<>(userPermission.getPermissions());
+            authInfo.setStringPermissions(permissions);
+            log.debug("用户权限: {}", permissions);
         }
+
+        return authInfo;
     }
 
     /**
      * 认证方法
-     * 验证用户身份
+     * 调用用户服务的认证接口，一次往返完成密码校验、状态检查并取回用户信息和权限信息。
+     * 认证结果作为第二个principal保存，登录流程和授权直接读取，不再查询用户服务。
      *
      * @param token 认证令牌
      * @return 认证信息
@@ -113,43 +92,45 @@ public class CustomRealm extends AuthorizingRealm {
         String username = upToken.getUsername();
         String password = String.valueOf(upToken.getPassword());
 
+        UserAuthenticationVO authentication;
         try {
-            // 查询用户信息
-            Result<UserVO> userResult = userServiceClient.getUserByUsername(username);
-            if (userResult == null || !userResult.isSuccess() || userResult.getData() == null) {
-                log.warn("用户不存在: {}", username);
-                throw new UnknownAccountException("用户不存在");
-            }
-
-            UserVO user = userResult.getData();
-
-            // 检查用户状态
-            if (user.getStatus() == null || user.getStatus() != 1) {
-                log.warn("用户账户被禁用: {}", username);
-                throw new DisabledAccountException("账户被禁用");
-            }
-
-            // 验证密码
-            Result<Boolean> passwordResult = userServiceClient.validatePassword(username, password);
-            if (passwordResult == null || !passwordResult.isSuccess() || !Boolean.TRUE.equals(passwordResult.getData())) {
-                log.warn("密码验证失败: {}", username);
-                throw new IncorrectCredentialsException("密码错误");
+            Result<UserAuthenticationVO> authResult = userServiceClient.authenticate(new AuthenticateUserDTO(username, password));
+            if (authResult == null || !authResult.isSuccess() || authResult.getData() == null) {
+                throw new AuthenticationException("认证失败");
             }
-
-            // 返回认证信息
-            return new SimpleAuthenticationInfo(
-                    username,                           // 用户名作为principal
-                    password,                          // 已验证的密码
-                    ByteSource.Util.bytes(username),  // 盐值
-                    getName()                          // Realm名称
-            );
-
+            authentication = authResult.getData();
         } catch (AuthenticationException e) {
             throw e;
         } catch (Exception e) {
             log.error("用户认证失败: {}", e.getMessage(), e);
             throw new AuthenticationException("认证失败", e);
         }
+
+        Integer result = authentication.getResult();
+        if (Constants.User.AUTH_UNKNOWN_ACCOUNT.equals(result)) {
+            log.warn("用户不存在: {}", username);
+            throw new UnknownAccountException("用户不存在");
+        }
+        if (Constants.User.AUTH_BAD_CREDENTIALS.equals(result)) {
+            log.warn("密码验证失败: {}", username);
+            throw new IncorrectCredentialsException("密码错误");
+        }
+        if (Constants.User.AUTH_LOCKED.equals(result)) {
+            log.warn("用户账户被锁定: {}", username);
+            throw new LockedAccountException("账户被锁定");
+        }
+        if (Constants.User.AUTH_DISABLED.equals(result)) {
+            log.warn("用户账户被禁用: {}", username);
+            throw new DisabledAccountException("账户被禁用");
+        }
+        if (!Constants.User.AUTH_SUCCESS.equals(result) || authentication.getUser() == null) {
+            throw new AuthenticationException("认证失败");
+        }
+
+        // 用户名作为主principal，认证结果作为第二个principal
+        SimplePrincipalCollection principals = new SimplePrincipalCollection(username, getName());
+        principals.add(authentication, getName());
+        return new SimpleAuthenticationInfo(principals, password);
     }
 
     /**
@@ -12,6 +12,7 @@ import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.SimplePrincipalCollection;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
@@ -45,26 +46,22 @@ public class JwtRealm extends AuthorizingRealm {
 
     /**
      * 授权方法
-     * 获取用户的角色和权限信息
+     * 获取用户的角色和权限信息，用户ID在认证时从Token中取出，直接按ID查询权限
      */
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(PrincipalCollection principals) {
 
-        // 获取用户名
+        // 获取用户名和用户ID
         String username = (String) principals.getPrimaryPrincipal();
+        Long userId = principals.oneByType(Long.class);
+        if (userId == null) {
+            log.warn("Token中缺少用户ID: {}", username);
+            return null;
+        }
 
         try {
-            // 查询用户信息
-            Result<UserVO> userResult = userServiceClient.getUserByUsername(username);
-            if (userResult == null || !userResult.isSuccess() || userResult.getData() == null) {
-                log.warn("用户不存在: {}", username);
-                return null;
-            }
-
-            UserVO user = userResult.getData();
-
             // 查询用户权限信息
-            Result<UserPermissionVO> permissionResult = userServiceClient.getUserPermissionInfo(user.getId());
+            Result<UserPermissionVO> permissionResult = userServiceClient.getUserPermissionInfo(userId);
             if (permissionResult == null || !permissionResult.isSuccess() || permissionResult.getData() == null) {
                 log.warn("用户权限信息不存在: {}", username);
                 return new SimpleAuthorizationInfo();
@@ -142,12 +139,10 @@ public class JwtRealm extends AuthorizingRealm {
                 throw new AuthenticationException("Token验证失败");
             }
 
-            // 返回认证信息
-            return new SimpleAuthenticationInfo(
-                    username,     // 用户名作为principal
-                    token,        // token作为credentials
-                    getName()     // realm名称
-            );
+            // 用户名作为主principal，用户ID作为第二个principal供授权使用
+            SimplePrincipalCollection principals = new SimplePrincipalCollection(username, getName());
+            principals.add(user.getId(), getName());
+            return new SimpleAuthenticationInfo(principals, token);
 
         } catch (AuthenticationException e) {
             throw e;
@@ -14,6 +14,7 @@ import com.coder.utils.JwtUtils;
 import com.coder.utils.RedisUtils;
 import com.coder.utils.StrUtils;
 import com.coder.vo.LoginVO;
+import com.coder.vo.UserAuthenticationVO;
 import com.coder.vo.UserPermissionVO;
 import com.coder.vo.UserVO;
 import lombok.extern.slf4j.Slf4j;
@@ -73,31 +74,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         try {
-            // 检查Redis缓存
-            Result<UserVO> userResult = userServiceClient.getUserByUsername(loginDTO.getUsername());
-            if (userResult != null && userResult.isSuccess() && userResult.getData() != null) {
-                UserVO user = userResult.getData();
-                userId = user.getId();
-
-                // 检查Redis中是否有有效的登录状态
-                String loginKey = Constants.CacheKey.USER_LOGIN + user.getId();
-                String existingToken = redisUtils.get(loginKey, String.class);
-
-                if (StrUtils.isNotBlank(existingToken) && !jwtUtils.isTokenExpired(existingToken)) {
-                    log.info("用户已登录，返回现有Token，用户名：{}", loginDTO.getUsername());
-
-                    // 延期现有Token的过期时间
-                    redisUtils.set(loginKey, existingToken, jwtUtils.getExpiration(), TimeUnit.SECONDS);
-
-                    // 记录登录成功的隐私信息
-                    loginResult = 1;
-                    recordLoginPrivacy(userId, request, loginResult, System.currentTimeMillis() - startTime);
-                    // 构建登录响应
-                    return buildLoginVO(existingToken, user);
-                }
-            }
-
-            // 未命中则使用Shiro进行认证
+            // 使用Shiro进行认证，CustomRealm一次调用用户服务完成密码校验并取回用户和权限信息
             Subject subject = SecurityUtils.getSubject();
 
             // 创建用户名密码Token
@@ -115,34 +92,45 @@ public class AuthServiceImpl implements AuthService {
             // Shiro认证
             subject.login(token);
 
-            // 认证成功，获取用户信息
-            String username = (String) subject.getPrincipal();
-            log.info("Shiro认证成功，用户：{}", username);
+            // 认证成功，从principal中取出认证结果
+            UserAuthenticationVO authentication = subject.getPrincipals().oneByType(UserAuthenticationVO.class);
+
+            // 登出Shiro会话，会话管理由JWT处理
+            subject.logout();
 
-            // 查询完整用户信息
-            Result<UserVO> authUserResult = userServiceClient.getUserByUsername(username);
-            if (authUserResult == null || !authUserResult.isSuccess() || authUserResult.getData() == null) {
+            if (authentication == null || authentication.getUser() == null) {
                 throw new BusinessException(ResultCode.LOGIN_ERROR, "获取用户信息失败");
             }
+            UserVO user = authentication.getUser();
+            userId = user.getId();
+            log.info("Shiro认证成功，用户：{}", user.getUsername());
 
-            UserVO user = authUserResult.getData();
+            // Redis中有有效的登录状态时复用现有Token并延期
+            String loginKey = Constants.CacheKey.USER_LOGIN + user.getId();
+            String existingToken = redisUtils.get(loginKey, String.class);
+            if (StrUtils.isNotBlank(existingToken) && !jwtUtils.isTokenExpired(existingToken)) {
+                log.info("用户已登录，返回现有Token，用户名：{}", loginDTO.getUsername());
+                redisUtils.set(loginKey, existingToken, jwtUtils.getExpiration(), TimeUnit.SECONDS);
+
+                // 记录登录成功的隐私信息
+                loginResult = 1;
+                recordLoginPrivacy(userId, request, loginResult, System.currentTimeMillis() - startTime);
+                return buildLoginVO(existingToken, user, authentication.getPermissions());
+            }
 
             // 生成JWT Token
             String jwtToken = jwtUtils.generateToken(user.getUsername(), user.getId());
 
             // 缓存登录状态到Redis
-            String loginKey = Constants.CacheKey.USER_LOGIN + user.getId();
             redisUtils.set(loginKey, jwtToken, jwtUtils.getExpiration(), TimeUnit.SECONDS);
-
-            // 登出Shiro会话，会话管理由JWT处理
-            subject.logout();
+            publishLoginChanged(user.getId());
 
             // 记录登录成功的隐私信息
             loginResult = 1;
             recordLoginPrivacy(userId, request, loginResult, System.currentTimeMillis() - startTime);
 
-            log.info("用户登录成功，用户名：{}", username);
-            return buildLoginVO(jwtToken, user);
+            log.info("用户登录成功，用户名：{}", user.getUsername());
+            return buildLoginVO(jwtToken, user, authentication.getPermissions());
 
         } catch (UnknownAccountException e) {
             log.warn("用户不存在：{}", loginDTO.getUsername());
@@ -190,16 +178,16 @@ public class AuthServiceImpl implements AuthService {
     }
 
     /**
-     * 构建登录响应对象
+     * 发布登录状态变更通知，网关收到后失效该用户的本地登录状态缓存
      */
-    private LoginVO buildLoginVO(String token, UserVO user) {
-        // 查询用户权限信息
-        Result<UserPermissionVO> permissionResult = userServiceClient.getUserPermissionInfo(user.getId());
-        UserPermissionVO permissions = null;
-        if (permissionResult != null && permissionResult.isSuccess() && permissionResult.getData() != null) {
-            permissions = permissionResult.getData();
-        }
+    private void publishLoginChanged(Long userId) {
+        redisUtils.publish(Constants.CacheKey.USER_LOGIN_CHANNEL, String.valueOf(userId));
+    }
 
+    /**
+     * 构建登录响应对象
+     */
+    private LoginVO buildLoginVO(String token, UserVO user, UserPermissionVO permissions) {
         // 构建登录响应
         LoginVO loginVO = new LoginVO();
         loginVO.setAccessToken(token);
@@ -279,6 +267,7 @@ public class AuthServiceImpl implements AuthService {
 
         try {
             redisUtils.delete(loginKey);
+            publishLoginChanged(userId);
 
             log.info("用户登出成功，用户ID：{}", userId);
             return "登出成功";
@@ -422,6 +411,7 @@ public class AuthServiceImpl implements AuthService {
             // 更新登录状态缓存
             String loginKey = Constants.CacheKey.USER_LOGIN + user.getId();
             redisUtils.set(loginKey, newToken, jwtUtils.getExpiration(), TimeUnit.SECONDS);
+            publishLoginChanged(user.getId());
 
             log.info("Token刷新成功，用户：{}", username);
             return loginVO;
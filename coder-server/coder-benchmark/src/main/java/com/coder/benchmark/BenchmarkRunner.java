@@ -0,0 +1,34 @@
+package com.coder.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ *
+ * 运行 com.coder.benchmark 包下的全部基准测试，结果以JSON格式写入文件，便于CI比对回归：
+ *     mvn -Pbenchmark -pl coder-benchmark -am package
+ *     java -jar coder-benchmark/target/benchmarks.jar [结果文件路径]
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : DEFAULT_RESULT_FILE;
+
+        Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark")
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+
+        new Runner(options).run();
+    }
+}
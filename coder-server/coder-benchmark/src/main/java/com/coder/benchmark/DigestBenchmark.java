@@ -0,0 +1,86 @@
+package com.coder.benchmark;
+
+import com.coder.utils.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 文件摘要基准测试
+ * 对比上传秒传使用的FileUtils.calculateMD5与其他摘要算法的开销
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DigestBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 文件大小：64KB、1MB、16MB
+     */
+    @Param({"65536", "1048576", "16777216"})
+    private int fileSize;
+
+    private MockMultipartFile file;
+
+    @Setup
+    public void setup() {
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        file = new MockMultipartFile("file", "benchmark.bin", "application/octet-stream", content);
+    }
+
+    @Benchmark
+    public String md5() throws IOException {
+        return FileUtils.calculateMD5(file);
+    }
+
+    @Benchmark
+    public byte[] sha1() throws IOException, NoSuchAlgorithmException {
+        return digest("SHA-1");
+    }
+
+    @Benchmark
+    public byte[] sha256() throws IOException, NoSuchAlgorithmException {
+        return digest("SHA-256");
+    }
+
+    @Benchmark
+    public long crc32() throws IOException {
+        CRC32 crc32 = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc32.update(buffer, 0, read);
+            }
+        }
+        return crc32.getValue();
+    }
+
+    private byte[] digest(String algorithm) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+}
@@ -0,0 +1,58 @@
+package com.coder.benchmark;
+
+import com.coder.utils.ErrorResponseTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 错误响应序列化基准测试
+ * 对比网关和认证过滤器原先的HashMap + ObjectMapper序列化与ErrorResponseTemplate预序列化写出
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorResponseBenchmark {
+
+    private static final String MESSAGE = "Token无效或已过期";
+
+    private ObjectMapper objectMapper;
+    private ErrorResponseTemplate template;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        template = ErrorResponseTemplate.of(401, MESSAGE);
+        out = new ByteArrayOutputStream(128);
+    }
+
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 401);
+        result.put("message", MESSAGE);
+        result.put("timestamp", System.currentTimeMillis());
+        return objectMapper.writeValueAsString(result).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int template() throws IOException {
+        out.reset();
+        template.writeTo(out, System.currentTimeMillis());
+        return out.size();
+    }
+}
@@ -0,0 +1,94 @@
+package com.coder.benchmark;
+
+import com.coder.entity.File;
+import com.coder.service.impl.FileServiceImpl;
+import com.coder.utils.BeanUtils;
+import com.coder.vo.FileVO;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件实体转换基准测试
+ * 覆盖FileServiceImpl.convertToVO、BeanUtils.copyProperties和formatFileSize
+ * 私有方法通过MethodHandle调用，测量的是实际生产代码
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileConvertBenchmark {
+
+    private File file;
+    private FileServiceImpl fileService;
+    private MethodHandle convertToVO;
+    private MethodHandle formatFileSize;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        file = new File();
+        file.setId(1001L);
+        file.setFileName("document.pdf");
+        file.setFilePath("./files/2025/08/22/0f8e1c2b.pdf");
+        file.setFileUrl("http://localhost:8083/files/2025/08/22/0f8e1c2b.pdf");
+        file.setFileSize(1536000L);
+        file.setFileType("pdf");
+        file.setMimeType("application/pdf");
+        file.setFileMd5("d41d8cd98f00b204e9800998ecf8427e");
+        file.setCategory("DOCUMENT");
+        file.setBusinessType("ATTACHMENT");
+        file.setModuleName("user");
+        file.setStorageType("LOCAL");
+        file.setStoragePath("2025/08/22");
+        file.setUploadStatus(1);
+        file.setStatus(1);
+        file.setDownloadCount(0);
+        file.setViewCount(0);
+        file.setFavoriteCount(0);
+        file.setAccessLevel(1);
+        file.setOwnerId(1L);
+        file.setTags("重要,工作,文档");
+        file.setCreateTime(LocalDateTime.now());
+        file.setUpdateTime(LocalDateTime.now());
+        file.setCreateBy(1L);
+        file.setUpdateBy(1L);
+        file.setDeleted(0);
+
+        fileService = new FileServiceImpl();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        convertToVO = lookup.unreflect(accessible("convertToVO", File.class));
+        formatFileSize = lookup.unreflect(accessible("formatFileSize", Long.class));
+    }
+
+    @Benchmark
+    public FileVO copyProperties() {
+        FileVO vo = new FileVO();
+        BeanUtils.copyProperties(file, vo);
+        return vo;
+    }
+
+    @Benchmark
+    public Object convertToVO() throws Throwable {
+        return convertToVO.invoke(fileService, file);
+    }
+
+    @Benchmark
+    public Object formatFileSize() throws Throwable {
+        return formatFileSize.invoke(fileService, file.getFileSize());
+    }
+
+    private static Method accessible(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = FileServiceImpl.class.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return method;
+    }
+}
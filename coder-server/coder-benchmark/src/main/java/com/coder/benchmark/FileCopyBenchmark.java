@@ -0,0 +1,107 @@
+package com.coder.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件落盘基准测试
+ * 对比Files.copy流拷贝、FileChannel零拷贝传输与上传日志使用的缓冲通道写入
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileCopyBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 文件大小：64KB、1MB、16MB、64MB
+     */
+    @Param({"65536", "1048576", "16777216", "67108864"})
+    private int fileSize;
+
+    private Path workDir;
+    private Path source;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("coder-copy-benchmark");
+        source = workDir.resolve("source.bin");
+        target = workDir.resolve("target.bin");
+
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        Files.write(source, content);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTarget() throws IOException {
+        Files.deleteIfExists(target);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(workDir);
+    }
+
+    @Benchmark
+    public long filesCopy() throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            return Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Benchmark
+    public long channelTransfer() throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            return position;
+        }
+    }
+
+    @Benchmark
+    public long bufferedChannelWrite() throws IOException {
+        long written = 0;
+        try (InputStream in = Files.newInputStream(source);
+             ReadableByteChannel from = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (from.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    written += out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return written;
+    }
+}
@@ -34,6 +34,25 @@ public class RedisConfig {
         template.setConnectionFactory(connectionFactory);
 
         // 配置Jackson序列化器
+        Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = createJsonRedisSerializer();
+
+        // 设置序列化器
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(jackson2JsonRedisSerializer);
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(jackson2JsonRedisSerializer);
+
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * 创建Redis值序列化器
+     * 同步与响应式模板共用，保证各服务读写的值格式一致
+     *
+     * @return Jackson序列化器
+     */
+    public static Jackson2JsonRedisSerializer<Object> createJsonRedisSerializer() {
         Jackson2JsonRedisSerializer<Object> jackson2JsonRedisSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
@@ -44,14 +63,6 @@ public class RedisConfig {
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
         jackson2JsonRedisSerializer.setObjectMapper(objectMapper);
-
-        // 设置序列化器
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(jackson2JsonRedisSerializer);
-        template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(jackson2JsonRedisSerializer);
-
-        template.afterPropertiesSet();
-        return template;
+        return jackson2JsonRedisSerializer;
     }
 }
\ No newline at end of file
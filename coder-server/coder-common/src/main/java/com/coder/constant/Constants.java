@@ -71,6 +71,15 @@ public final class Constants {
         public static final Integer TYPE_VIP = 2;      // VIP用户
         public static final Integer TYPE_ADMIN = 3;    // 管理员
 
+        /**
+         * 认证结果
+         */
+        public static final Integer AUTH_SUCCESS = 0;             // 认证成功
+        public static final Integer AUTH_UNKNOWN_ACCOUNT = 1;     // 用户不存在
+        public static final Integer AUTH_BAD_CREDENTIALS = 2;     // 密码错误
+        public static final Integer AUTH_DISABLED = 3;            // 账户被禁用
+        public static final Integer AUTH_LOCKED = 4;              // 账户被锁定
+
         /**
          * 性别
          */
@@ -112,6 +121,18 @@ public final class Constants {
         public static final String USER_TOKEN = "user:token:";    // 用户令牌
         public static final String USER_LOGIN = "user:login:";    // 用户登录信息
 
+        /**
+         * 登录状态变更频道，消息体为用户ID
+         * 登录、登出、刷新Token及清除登录状态时发布，网关据此失效本地登录状态缓存
+         */
+        public static final String USER_LOGIN_CHANNEL = "channel:user:login";
+
+        /**
+         * 数据变更频道，消息体为变更的数据类型（见DataChange）
+         * coder-user在事务提交后发布，网关据此失效相关的响应缓存
+         */
+        public static final String DATA_CHANGE_CHANNEL = "channel:data:change";
+
         /**
          * 验证码缓存键
          */
@@ -131,6 +152,19 @@ public final class Constants {
         public static final String RATE_LIMIT = "rate:limit:";
     }
 
+    // ================ 数据变更类型常量 ================
+
+    /**
+     * 数据变更类型，作为CacheKey.DATA_CHANGE_CHANNEL的消息体
+     */
+    public static final class DataChange {
+        public static final String USER = "user";              // 用户
+        public static final String ROLE = "role";              // 角色
+        public static final String MENU = "menu";              // 菜单
+        public static final String USER_ROLE = "user-role";    // 用户角色关联
+        public static final String ROLE_MENU = "role-menu";    // 角色菜单关联
+    }
+
     // ================ 缓存过期时间常量 ================
 
     /**
@@ -255,6 +289,9 @@ public final class Constants {
         public static final String USER_AGENT = "User-Agent";
         public static final String X_FORWARDED_FOR = "X-Forwarded-For";
         public static final String X_REAL_IP = "X-Real-IP";
+        public static final String X_USER_PERMISSIONS = "X-User-Permissions";    // 网关签发的权限声明
+        public static final String X_INTERNAL_CALL = "X-Internal-Call";          // 内部服务调用标识
+        public static final String X_INTERNAL_SIGNATURE = "X-Internal-Signature"; // 内部服务调用签名，见InternalCallSigner
 
         /**
          * 媒体类型
@@ -0,0 +1,38 @@
+package com.coder.context;
+
+import java.util.BitSet;
+
+/**
+ * 网关签发的用户权限声明
+ * 权限以位图表示，下标对应coder-user权限目录中的位置，只在同一目录版本下有效
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+public class PermissionClaims {
+
+    private final Long userId;
+    private final long version;
+    private final BitSet bits;
+
+    public PermissionClaims(Long userId, long version, BitSet bits) {
+        this.userId = userId;
+        this.version = version;
+        this.bits = bits;
+    }
+
+    /**
+     * 是否拥有权限目录中下标为index的权限
+     */
+    public boolean has(int index) {
+        return index >= 0 && bits.get(index);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
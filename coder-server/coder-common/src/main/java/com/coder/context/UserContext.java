@@ -22,6 +22,42 @@ public class UserContext {
         return userInfo != null ? userInfo.getUserId() : null;
     }
 
+    /**
+     * 设置网关签发的权限声明，需在setCurrentUser之后调用
+     */
+    public static void setPermissionClaims(PermissionClaims permissionClaims) {
+        UserInfo userInfo = USER_THREAD_LOCAL.get();
+        if (userInfo != null) {
+            userInfo.setPermissionClaims(permissionClaims);
+        }
+    }
+
+    /**
+     * 获取网关签发的权限声明，请求未携带或校验失败时为null
+     */
+    public static PermissionClaims getPermissionClaims() {
+        UserInfo userInfo = USER_THREAD_LOCAL.get();
+        return userInfo != null ? userInfo.getPermissionClaims() : null;
+    }
+
+    /**
+     * 标记当前请求为内部服务调用，只在AuthInterceptor校验内部调用签名之后调用
+     */
+    public static void setInternalCall() {
+        UserInfo userInfo = USER_THREAD_LOCAL.get();
+        if (userInfo != null) {
+            userInfo.setInternalCall(true);
+        }
+    }
+
+    /**
+     * 当前请求是否为签名有效的内部服务调用（X-User-Id为0的用户请求不是内部调用）
+     */
+    public static boolean isInternalCall() {
+        UserInfo userInfo = USER_THREAD_LOCAL.get();
+        return userInfo != null && userInfo.isInternalCall();
+    }
+
     public static String getCurrentUsername() {
         UserInfo userInfo = USER_THREAD_LOCAL.get();
         return userInfo != null ? userInfo.getUsername() : null;
@@ -35,5 +71,7 @@ public class UserContext {
     public static class UserInfo {
         private Long userId;
         private String username;
+        private PermissionClaims permissionClaims;
+        private boolean internalCall;
     }
 }
\ No newline at end of file
@@ -1,10 +1,18 @@
 package com.coder.interceptor;
 
+import com.coder.constant.Constants;
+import com.coder.context.PermissionClaims;
 import com.coder.context.UserContext;
+import com.coder.utils.InternalCallSigner;
+import com.coder.utils.PathPatternMatcher;
+import com.coder.utils.PermissionClaimsCodec;
+import com.coder.utils.StrUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -12,6 +20,49 @@ import javax.servlet.http.HttpServletResponse;
 @Component
 public class AuthInterceptor implements HandlerInterceptor {
 
+    /**
+     * 排除认证的路径
+     */
+    private static final PathPatternMatcher EXCLUDED_PATHS = PathPatternMatcher.compile(
+            "/auth/login",
+            "/auth/register",
+            "/auth/logout",
+            "/coder/auth/login",
+            "/coder/auth/register",
+            "/coder/auth/logout",
+            "/coder/auth/forgot-password",
+            "/coder/auth/reset-password",
+            "/coder/auth/send-email-code",
+            "/health",
+            "/actuator/**",
+            // Swagger 相关路径
+            "/doc.html",
+            "/swagger-ui/**",
+            "/swagger-resources/**",
+            "/webjars/**",
+            "/v2/api-docs",
+            "/v3/api-docs/**",
+            "/favicon.ico"
+    );
+
+    /**
+     * 与网关共享的内部密钥，用于校验权限声明和内部调用签名；未配置时忽略权限声明，也不接受内部调用
+     */
+    @Value("${coder.security.internal-secret:}")
+    private String internalSecret;
+
+    private PermissionClaimsCodec permissionClaimsCodec;
+
+    private InternalCallSigner internalCallSigner;
+
+    @PostConstruct
+    public void init() {
+        if (StrUtils.isNotBlank(internalSecret)) {
+            this.permissionClaimsCodec = new PermissionClaimsCodec(internalSecret);
+            this.internalCallSigner = new InternalCallSigner(internalSecret);
+        }
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         String requestURI = request.getRequestURI();
@@ -22,11 +73,17 @@ public class AuthInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        // 检查是否是内部服务调用
-        String internalCall = request.getHeader("X-Internal-Call");
+        // 检查是否是内部服务调用，X-Internal-Call可被伪造，必须携带有效签名
+        String internalCall = request.getHeader(Constants.Http.X_INTERNAL_CALL);
         if ("true".equals(internalCall)) {
+            if (!isSignedInternalCall(request)) {
+                log.warn("内部服务调用签名无效: {}", requestURI);
+                response.setStatus(401);
+                return false;
+            }
             log.debug("内部服务调用，跳过用户认证: {}", requestURI);
             UserContext.setCurrentUser("0", "SYSTEM");
+            UserContext.setInternalCall();
             return true;
         }
 
@@ -41,46 +98,40 @@ public class AuthInterceptor implements HandlerInterceptor {
         }
 
         UserContext.setCurrentUser(userId, username);
+        UserContext.setPermissionClaims(resolvePermissionClaims(request, userId));
         return true;
     }
 
+    /**
+     * 校验内部服务调用签名（InternalCallSigner）
+     */
+    private boolean isSignedInternalCall(HttpServletRequest request) {
+        return internalCallSigner != null && internalCallSigner.verify(
+                request.getHeader(Constants.Http.X_INTERNAL_SIGNATURE),
+                request.getMethod(), request.getRequestURI(), System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * 校验网关签发的权限声明，签名不符、已过期或与X-User-Id不一致时忽略
+     */
+    private PermissionClaims resolvePermissionClaims(HttpServletRequest request, String userId) {
+        String header = request.getHeader(Constants.Http.X_USER_PERMISSIONS);
+        if (permissionClaimsCodec == null || header == null) {
+            return null;
+        }
+        PermissionClaims claims = permissionClaimsCodec.decode(header, System.currentTimeMillis() / 1000);
+        if (claims == null || !claims.getUserId().toString().equals(userId)) {
+            log.warn("忽略无效的权限声明: {}", request.getRequestURI());
+            return null;
+        }
+        return claims;
+    }
+
     /**
      * 判断是否是排除认证的路径
      */
     private boolean isExcludedPath(String requestURI) {
-        String[] excludedPaths = {
-                "/auth/login",
-                "/auth/register",
-                "/auth/logout",
-                "/coder/auth/login",
-                "/coder/auth/register",
-                "/coder/auth/logout",
-                "/coder/auth/forgot-password",
-                "/coder/auth/reset-password",
-                "/coder/auth/send-email-code",
-                "/health",
-                "/actuator/**",
-                // Swagger 相关路径
-                "/doc.html",
-                "/swagger-ui/**",
-                "/swagger-resources/**",
-                "/webjars/**",
-                "/v2/api-docs",
-                "/v3/api-docs/**",
-                "/favicon.ico"
-        };
-
-        for (String path : excludedPaths) {
-            if (path.endsWith("/**")) {
-                String prefix = path.substring(0, path.length() - 3);
-                if (requestURI.startsWith(prefix)) {
-                    return true;
-                }
-            } else if (requestURI.equals(path)) {
-                return true;
-            }
-        }
-        return false;
+        return EXCLUDED_PATHS.matches(requestURI);
     }
 
     @Override
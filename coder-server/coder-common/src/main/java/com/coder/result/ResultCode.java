@@ -53,6 +53,21 @@ public enum ResultCode {
      */
     SERVICE_UNAVAILABLE(409, "服务暂时不可用"),
 
+    /**
+     * 缺少请求体长度
+     */
+    LENGTH_REQUIRED(411, "缺少Content-Length"),
+
+    /**
+     * 请求体过大
+     */
+    PAYLOAD_TOO_LARGE(413, "请求体过大"),
+
+    /**
+     * 请求过多
+     */
+    TOO_MANY_REQUESTS(429, "请求过多，请稍后重试"),
+
     /**
      * 业务异常
      */
@@ -0,0 +1,131 @@
+package com.coder.utils;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 预序列化的错误响应体
+ *
+ * 错误响应体为固定格式{"code":...,"message":"...","timestamp":...}，只有时间戳每次不同。
+ * 创建时将时间戳之前的部分序列化为UTF-8字节，写出时直接拷贝并追加时间戳数字，
+ * 不创建Map、不经过ObjectMapper，也不产生临时字符串。
+ *
+ * 实例不可变，可在多个线程间共享，通常保存为静态常量。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public final class ErrorResponseTemplate {
+
+    /**
+     * 时间戳的最大位数（long最大值19位）
+     */
+    private static final int MAX_TIMESTAMP_DIGITS = 19;
+
+    private static final byte SUFFIX = '}';
+
+    private final int code;
+    private final String message;
+
+    /**
+     * {"code":...,"message":"...","timestamp":
+     */
+    private final byte[] prefix;
+
+    private ErrorResponseTemplate(int code, String message) {
+        this.code = code;
+        this.message = message;
+        StringBuilder json = new StringBuilder(64)
+                .append("{\"code\":").append(code)
+                .append(",\"message\":\"");
+        if (message != null) {
+            json.append(JsonStringEncoder.getInstance().quoteAsString(message));
+        }
+        json.append("\",\"timestamp\":");
+        this.prefix = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 创建错误响应模板
+     *
+     * @param code    业务码
+     * @param message 提示信息
+     * @return 错误响应模板
+     */
+    public static ErrorResponseTemplate of(int code, String message) {
+        return new ErrorResponseTemplate(code, message);
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 计算响应体字节数
+     *
+     * @param timestamp 时间戳（毫秒，非负）
+     * @return 响应体字节数
+     */
+    public int contentLength(long timestamp) {
+        return prefix.length + digits(timestamp) + 1;
+    }
+
+    /**
+     * 写出响应体
+     *
+     * @param out       输出流
+     * @param timestamp 时间戳（毫秒，非负）
+     * @throws IOException 写出失败
+     */
+    public void writeTo(OutputStream out, long timestamp) throws IOException {
+        out.write(prefix);
+        for (long divisor = pow10(digits(timestamp) - 1); divisor > 0; divisor /= 10) {
+            out.write('0' + (int) (timestamp / divisor % 10));
+        }
+        out.write(SUFFIX);
+    }
+
+    /**
+     * 从缓冲区工厂分配缓冲区并写入响应体，Netty下分配的是池化缓冲区，写出后由框架释放
+     *
+     * @param bufferFactory 缓冲区工厂
+     * @param timestamp     时间戳（毫秒，非负）
+     * @return 已写入响应体的缓冲区
+     */
+    public DataBuffer writeTo(DataBufferFactory bufferFactory, long timestamp) {
+        int digits = digits(timestamp);
+        DataBuffer buffer = bufferFactory.allocateBuffer(prefix.length + MAX_TIMESTAMP_DIGITS + 1);
+        buffer.write(prefix);
+        for (long divisor = pow10(digits - 1); divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + timestamp / divisor % 10));
+        }
+        buffer.write(SUFFIX);
+        return buffer;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10 && digits < MAX_TIMESTAMP_DIGITS) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1L;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
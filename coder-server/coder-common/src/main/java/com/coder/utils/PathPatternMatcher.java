@@ -0,0 +1,195 @@
+package com.coder.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 预编译路径匹配器
+ *
+ * 将路径模式编译为按路径段组织的前缀树，匹配时按下标逐段比较，不拆分字符串、不产生临时对象。
+ * 支持的模式：
+ *     /a/b       精确匹配
+ *     /a/*       匹配一个任意路径段
+ *     /a/**      匹配/a本身及其下的全部路径，只能出现在模式末尾
+ * 连续或末尾的'/'被忽略。请求路径按未解码的原始路径匹配，下游（如Tomcat）会解码%2e、去掉";"后的路径参数，
+ * 因此去掉路径参数并把%2e视为'.'后为"."或".."的路径段（如"..;"、"%2e%2e"、".%2E;x"）
+ * 一律不匹配，防止借助路径穿越绕过认证。
+ *
+ * 实例不可变，可在多个线程间共享。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public final class PathPatternMatcher {
+
+    private static final String SINGLE_WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "**";
+
+    private final Node root;
+
+    private PathPatternMatcher(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * 编译路径模式
+     *
+     * @param patterns 路径模式
+     * @return 路径匹配器
+     * @throws IllegalArgumentException 模式不以'/'开头或"**"不在末尾
+     */
+    public static PathPatternMatcher compile(String... patterns) {
+        return compile(Arrays.asList(patterns));
+    }
+
+    /**
+     * 编译路径模式
+     *
+     * @param patterns 路径模式
+     * @return 路径匹配器
+     * @throws IllegalArgumentException 模式不以'/'开头或"**"不在末尾
+     */
+    public static PathPatternMatcher compile(Collection<String> patterns) {
+        Node root = new Node();
+        if (patterns != null) {
+            for (String pattern : patterns) {
+                add(root, pattern);
+            }
+        }
+        return new PathPatternMatcher(root);
+    }
+
+    /**
+     * 判断路径是否匹配任一模式
+     *
+     * @param path 请求路径（不含查询参数）
+     * @return 是否匹配
+     */
+    public boolean matches(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/' || containsDotSegment(path)) {
+            return false;
+        }
+        return matches(root, path, 0);
+    }
+
+    private static void add(Node root, String pattern) {
+        if (StrUtils.isBlank(pattern) || pattern.charAt(0) != '/') {
+            throw new IllegalArgumentException("路径模式必须以'/'开头: " + pattern);
+        }
+
+        Node node = root;
+        String[] segments = pattern.trim().split("/");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (MULTI_WILDCARD.equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("\"**\"只能出现在路径模式末尾: " + pattern);
+                }
+                node.prefix = true;
+                return;
+            }
+            node = SINGLE_WILDCARD.equals(segment) ? node.wildcardChild() : node.child(segment);
+        }
+        node.terminal = true;
+    }
+
+    private static boolean matches(Node node, String path, int start) {
+        if (node.prefix) {
+            return true;
+        }
+
+        int length = path.length();
+        while (start < length && path.charAt(start) == '/') {
+            start++;
+        }
+        if (start == length) {
+            return node.terminal;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = length;
+        }
+        int segmentLength = end - start;
+
+        List<String> names = node.names;
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            if (name.length() == segmentLength && path.regionMatches(start, name, 0, segmentLength)
+                    && matches(node.children.get(i), path, end)) {
+                return true;
+            }
+        }
+        return node.wildcard != null && matches(node.wildcard, path, end);
+    }
+
+    /**
+     * 判断路径是否包含dot-segment：去掉";"之后的路径参数、将%2e视为'.'后，路径段为"."或".."
+     */
+    private static boolean containsDotSegment(String path) {
+        int length = path.length();
+        int segmentStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (isDotSegment(path, segmentStart, i)) {
+                    return true;
+                }
+                segmentStart = i + 1;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDotSegment(String path, int start, int end) {
+        int dots = 0;
+        int i = start;
+        while (i < end && path.charAt(i) != ';') {
+            if (path.charAt(i) == '.') {
+                i++;
+            } else if (i + 2 < end && path.charAt(i) == '%' && path.charAt(i + 1) == '2'
+                    && (path.charAt(i + 2) == 'e' || path.charAt(i + 2) == 'E')) {
+                i += 3;
+            } else {
+                return false;
+            }
+            if (++dots > 2) {
+                return false;
+            }
+        }
+        return dots > 0;
+    }
+
+    /**
+     * 前缀树节点，子节点按路径段名称线性查找（同层路径段很少）
+     */
+    private static class Node {
+        private final List<String> names = new ArrayList<>();
+        private final List<Node> children = new ArrayList<>();
+        private Node wildcard;
+        private boolean terminal;
+        private boolean prefix;
+
+        Node child(String name) {
+            int index = names.indexOf(name);
+            if (index >= 0) {
+                return children.get(index);
+            }
+            Node child = new Node();
+            names.add(name);
+            children.add(child);
+            return child;
+        }
+
+        Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.coder.utils;
+
+import com.coder.context.PermissionClaims;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * 权限声明请求头编解码
+ *
+ * 格式：用户ID.目录版本.过期时间（秒）.权限位图.签名，位图和签名为Base64URL编码，
+ * 签名为前四段的HMAC-SHA256。网关编码，下游服务解码，双方使用相同的内部密钥。
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+public class PermissionClaimsCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> mac;
+
+    public PermissionClaimsCodec(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256算法不可用", e);
+            }
+        });
+    }
+
+    /**
+     * 编码并签名权限声明
+     *
+     * @param userId           用户ID
+     * @param version          权限目录版本
+     * @param bitmap           Base64URL编码的权限位图
+     * @param expiresAtSeconds 过期时间（秒）
+     * @return 请求头的值
+     */
+    public String encode(Long userId, long version, String bitmap, long expiresAtSeconds) {
+        String payload = userId + "." + version + "." + expiresAtSeconds + "." + bitmap;
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * 校验签名并解码权限声明
+     *
+     * @param value      请求头的值
+     * @param nowSeconds 当前时间（秒）
+     * @return 权限声明，格式错误、签名不符或已过期时返回null
+     */
+    public PermissionClaims decode(String value, long nowSeconds) {
+        if (StrUtils.isBlank(value)) {
+            return null;
+        }
+        int signatureStart = value.lastIndexOf('.');
+        String[] parts = value.substring(0, Math.max(0, signatureStart)).split("\\.", -1);
+        if (signatureStart <= 0 || parts.length != 4) {
+            return null;
+        }
+        try {
+            byte[] expected = sign(value.substring(0, signatureStart));
+            byte[] actual = DECODER.decode(value.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(expected, actual) || Long.parseLong(parts[2]) < nowSeconds) {
+                return null;
+            }
+            return new PermissionClaims(Long.valueOf(parts[0]), Long.parseLong(parts[1]),
+                    BitSet.valueOf(DECODER.decode(parts[3])));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
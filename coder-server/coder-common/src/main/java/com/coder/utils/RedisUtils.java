@@ -5,6 +5,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.*;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
 import javax.annotation.PostConstruct;
@@ -22,6 +24,7 @@ import java.util.concurrent.TimeUnit;
  *     集合操作：sadd、srem、smembers等
  *     有序集合操作：zadd、zrem、zrange等
  *     过期时间操作：expire、ttl等
+ *     发布订阅操作：publish、publishAfterCommit
  *     分布式锁操作：tryLock、unlock等
  *
  * @author Sunset
@@ -893,6 +896,49 @@ public final class RedisUtils {
         }
     }
 
+    // ================ 发布订阅操作 ================
+
+    /**
+     * 向频道发布消息
+     * 消息按字符串发送，订阅方无需依赖Jackson类型信息即可解析
+     *
+     * @param channel 频道
+     * @param message 消息
+     * @return true-发布成功，false-发布失败
+     */
+    public boolean publish(String channel, String message) {
+        if (StrUtils.isBlank(channel) || message == null) {
+            return false;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+            return true;
+        } catch (Exception e) {
+            log.error("发布消息失败: channel={}, message={}, error={}", channel, message, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 在当前事务提交后向频道发布消息，无事务时立即发布
+     * 用于数据变更通知，避免订阅方在事务提交前重新读到旧数据
+     *
+     * @param channel 频道
+     * @param message 消息
+     */
+    public void publishAfterCommit(String channel, String message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(channel, message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(channel, message);
+            }
+        });
+    }
+
     // ================ 分布式锁操作 ================
 
     /**
@@ -0,0 +1,25 @@
+package com.coder.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 用户权限位图VO
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+@Data
+@ApiModel(value = "PermissionBitsVO", description = "用户权限位图响应对象")
+public class PermissionBitsVO {
+
+    @ApiModelProperty(value = "用户ID")
+    private Long userId;
+
+    @ApiModelProperty(value = "权限目录版本，位图中的下标只在同一版本的权限目录下有效")
+    private Long version;
+
+    @ApiModelProperty(value = "权限位图（Base64URL），第i位表示是否拥有权限目录中下标为i的权限")
+    private String bitmap;
+}
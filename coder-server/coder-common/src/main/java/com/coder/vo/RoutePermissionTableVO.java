@@ -0,0 +1,27 @@
+package com.coder.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 接口权限表VO
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+@Data
+@ApiModel(value = "RoutePermissionTableVO", description = "接口权限表响应对象")
+public class RoutePermissionTableVO {
+
+    @ApiModelProperty(value = "权限表版本，接口或权限目录变化时改变")
+    private Long version;
+
+    @ApiModelProperty(value = "权限目录版本，indexes只对同一版本的权限位图有效")
+    private Long catalogVersion;
+
+    @ApiModelProperty(value = "全部接口的权限要求，包括不要求权限的接口")
+    private List<RoutePermissionVO> routes;
+}
@@ -0,0 +1,33 @@
+package com.coder.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 接口权限要求VO
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+@Data
+@ApiModel(value = "RoutePermissionVO", description = "接口权限要求响应对象")
+public class RoutePermissionVO {
+
+    @ApiModelProperty(value = "请求方法，为空表示不限方法")
+    private List<String> methods;
+
+    @ApiModelProperty(value = "路径模式（PathPatternMatcher语法），路径变量已替换为*")
+    private List<String> patterns;
+
+    @ApiModelProperty(value = "需要的权限标识，为空表示接口不要求权限")
+    private List<String> permissions;
+
+    @ApiModelProperty(value = "权限标识在权限目录中的下标，与permissions一一对应，不存在时为-1")
+    private List<Integer> indexes;
+
+    @ApiModelProperty(value = "是否需要全部权限，false表示拥有任一权限即可")
+    private Boolean requireAll;
+}
@@ -0,0 +1,26 @@
+package com.coder.vo;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+/**
+ * 用户认证结果VO
+ * 一次调用返回凭证校验结果、用户信息和权限信息，供认证服务登录使用
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+@Data
+@ApiModel(value = "UserAuthenticationVO", description = "用户认证结果响应对象")
+public class UserAuthenticationVO {
+
+    @ApiModelProperty(value = "认证结果，见Constants.User.AUTH_*")
+    private Integer result;
+
+    @ApiModelProperty(value = "用户信息，认证成功时返回")
+    private UserVO user;
+
+    @ApiModelProperty(value = "用户权限信息，认证成功时返回")
+    private UserPermissionVO permissions;
+}
@@ -0,0 +1,44 @@
+package com.coder.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * InternalCallSigner测试
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+class InternalCallSignerTest {
+
+    private static final long NOW = 1755400000L;
+
+    private final InternalCallSigner signer = new InternalCallSigner("secret");
+
+    @Test
+    void verifiesOwnSignature() {
+        String value = signer.sign("POST", "/coder/internal/user/authenticate", NOW);
+        assertTrue(signer.verify(value, "POST", "/coder/internal/user/authenticate", NOW));
+        assertTrue(signer.verify(value, "post", "/coder/internal/user/authenticate", NOW + 60));
+    }
+
+    @Test
+    void rejectsOtherRequestsAndExpiredSignatures() {
+        String value = signer.sign("GET", "/coder/internal/user/1/permission-bits", NOW);
+        assertFalse(signer.verify(value, "GET", "/coder/internal/user/2/permission-bits", NOW));
+        assertFalse(signer.verify(value, "POST", "/coder/internal/user/1/permission-bits", NOW));
+        assertFalse(signer.verify(value, "GET", "/coder/internal/user/1/permission-bits", NOW + 61));
+        assertFalse(new InternalCallSigner("other").verify(value, "GET", "/coder/internal/user/1/permission-bits", NOW));
+    }
+
+    @Test
+    void rejectsMalformedValues() {
+        assertFalse(signer.verify(null, "GET", "/", NOW));
+        assertFalse(signer.verify("true", "GET", "/", NOW));
+        assertFalse(signer.verify(".abc", "GET", "/", NOW));
+        assertFalse(signer.verify("abc.def", "GET", "/", NOW));
+        assertFalse(signer.verify(NOW + ".!!!", "GET", "/", NOW));
+    }
+}
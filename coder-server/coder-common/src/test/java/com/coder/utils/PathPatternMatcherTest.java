@@ -0,0 +1,73 @@
+package com.coder.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PathPatternMatcher测试
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+class PathPatternMatcherTest {
+
+    private final PathPatternMatcher matcher = PathPatternMatcher.compile(
+            "/coder/auth/login/**",
+            "/coder/file/*/preview",
+            "/actuator/health"
+    );
+
+    @Test
+    void matchesPatterns() {
+        assertTrue(matcher.matches("/coder/auth/login"));
+        assertTrue(matcher.matches("/coder/auth/login/email"));
+        assertTrue(matcher.matches("/coder/file/12/preview"));
+        assertTrue(matcher.matches("/actuator/health/"));
+        assertTrue(matcher.matches("//actuator//health"));
+        assertTrue(matcher.matches("/coder/auth/login/a.b"));
+        assertTrue(matcher.matches("/coder/auth/login/...config"));
+    }
+
+    @Test
+    void rejectsUnmatchedPaths() {
+        assertFalse(matcher.matches("/coder/auth/logout"));
+        assertFalse(matcher.matches("/coder/file/12/13/preview"));
+        assertFalse(matcher.matches("/actuator/health/detail"));
+        assertFalse(matcher.matches("coder/auth/login"));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    void rejectsDotSegments() {
+        assertFalse(matcher.matches("/coder/auth/login/../../user/list"));
+        assertFalse(matcher.matches("/coder/auth/login/./email"));
+        assertFalse(matcher.matches("/coder/auth/login/.."));
+    }
+
+    @Test
+    void rejectsDotSegmentsWithPathParameters() {
+        assertFalse(matcher.matches("/coder/auth/login/..;/..;/user/list"));
+        assertFalse(matcher.matches("/coder/auth/login/..;jsessionid=1/user"));
+        assertFalse(matcher.matches("/coder/auth/login/.;x/email"));
+    }
+
+    @Test
+    void rejectsPercentEncodedDotSegments() {
+        assertFalse(matcher.matches("/coder/auth/login/%2e%2e/%2e%2e/user/list"));
+        assertFalse(matcher.matches("/coder/auth/login/%2E%2E/user"));
+        assertFalse(matcher.matches("/coder/auth/login/.%2e/user"));
+        assertFalse(matcher.matches("/coder/auth/login/%2e./user"));
+        assertFalse(matcher.matches("/coder/auth/login/%2e/email"));
+        assertFalse(matcher.matches("/coder/auth/login/%2e%2e;x/user"));
+    }
+
+    @Test
+    void rejectsInvalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> PathPatternMatcher.compile("coder/auth"));
+        assertThrows(IllegalArgumentException.class, () -> PathPatternMatcher.compile("/coder/**/auth"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.coder.admission;
+
+import com.coder.config.FileConfig;
+import com.coder.constant.Constants;
+import com.coder.exception.UploadRejectedException;
+import com.coder.utils.ErrorResponseTemplate;
+import com.coder.utils.InternalCallSigner;
+import com.coder.utils.StrUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 上传准入过滤器
+ *
+ * 在DispatcherServlet解析multipart请求体之前执行：按Content-Length申请上传许可，
+ * 被拒绝的请求直接返回429，请求体不会被读取和落盘，也不占用数据库连接。
+ * 用户级限制只使用网关认证后传入的X-User-Id（即AuthInterceptor写入UserContext的用户ID），
+ * 不信任请求参数中的operatorId；缺少用户身份的上传直接返回401。
+ * 只有X-Internal-Signature校验通过的内部服务调用（见InternalCallSigner）不受用户级限制，
+ * 仅携带X-Internal-Call的请求按普通用户请求处理（网关也会移除客户端传入的该请求头）。
+ * Content-Length未知（分块传输）时按单次请求上限预占在途字节额度。
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final String UPLOAD_PATH = "/coder/file/upload";
+
+    private static final ErrorResponseTemplate UNAUTHORIZED = ErrorResponseTemplate.of(401, "未授权，请先登录");
+
+    @Resource
+    private UploadAdmissionManager uploadAdmissionManager;
+
+    @Resource
+    private FileConfig fileConfig;
+
+    /**
+     * 与网关共享的内部密钥，用于校验内部调用签名；未配置时不认可任何内部调用
+     */
+    @Value("${coder.security.internal-secret:}")
+    private String internalSecret;
+
+    private InternalCallSigner internalCallSigner;
+
+    /**
+     * 拒绝提示信息 -> 预序列化的响应体
+     */
+    private final Map<String, ErrorResponseTemplate> rejectTemplates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (StrUtils.isNotBlank(internalSecret)) {
+            this.internalCallSigner = new InternalCallSigner(internalSecret);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !UPLOAD_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId;
+        if (isSignedInternalCall(request)) {
+            userId = null;
+        } else {
+            userId = parseUserId(request.getHeader("X-User-Id"));
+            if (userId == null) {
+                write(response, HttpStatus.UNAUTHORIZED, UNAUTHORIZED);
+                return;
+            }
+        }
+
+        long contentLength = request.getContentLengthLong();
+        long bytes = contentLength >= 0 ? contentLength : fileConfig.getUpload().getMaxRequestSize();
+
+        UploadPermit permit;
+        try {
+            permit = uploadAdmissionManager.acquire(userId, bytes);
+        } catch (UploadRejectedException e) {
+            log.warn("上传请求被拒绝: URI=[{}], 原因=[{}], 错误信息=[{}]",
+                    request.getRequestURI(), e.getReason(), e.getMessage());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            write(response, HttpStatus.TOO_MANY_REQUESTS,
+                    rejectTemplates.computeIfAbsent(e.getMessage(), message -> ErrorResponseTemplate.of(e.getCode(), message)));
+            return;
+        }
+
+        try (UploadPermit ignored = permit) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private boolean isSignedInternalCall(HttpServletRequest request) {
+        return internalCallSigner != null
+                && "true".equals(request.getHeader(Constants.Http.X_INTERNAL_CALL))
+                && internalCallSigner.verify(request.getHeader(Constants.Http.X_INTERNAL_SIGNATURE),
+                        request.getMethod(), request.getRequestURI(), System.currentTimeMillis() / 1000);
+    }
+
+    private Long parseUserId(String header) {
+        if (StrUtils.isBlank(header)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void write(HttpServletResponse response, HttpStatus status, ErrorResponseTemplate template) throws IOException {
+        long timestamp = System.currentTimeMillis();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8");
+        response.setContentLength(template.contentLength(timestamp));
+        template.writeTo(response.getOutputStream(), timestamp);
+    }
+}
@@ -0,0 +1,215 @@
+package com.coder.admission;
+
+import com.coder.config.FileConfig;
+import com.coder.exception.UploadRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上传准入控制
+ *
+ * 在解析上传请求体、写入磁盘和进入数据库事务之前限制：
+ *     单节点并发上传数（超出后短暂排队，排队满或超时即拒绝）
+ *     单用户并发上传数
+ *     单节点在途上传字节数
+ * 饱和时快速抛出UploadRejectedException，由UploadAdmissionFilter返回429
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@Slf4j
+@Component
+public class UploadAdmissionManager {
+
+    private static final String METRIC_PREFIX = "coder.file.upload.admission";
+
+    @Resource
+    private FileConfig fileConfig;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 节点上传槽位
+     */
+    private Semaphore nodeSlots;
+
+    /**
+     * 正在上传的请求数
+     */
+    private final AtomicInteger activeUploads = new AtomicInteger();
+
+    /**
+     * 等待槽位的请求数
+     */
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    /**
+     * 在途上传字节数
+     */
+    private final AtomicLong bytesInFlight = new AtomicLong();
+
+    /**
+     * 用户ID -> 该用户正在上传的请求数
+     */
+    private final Map<Long, Integer> userUploads = new ConcurrentHashMap<>();
+
+    /**
+     * 拒绝原因 -> 拒绝计数器
+     */
+    private final Map<String, Counter> rejectCounters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        FileConfig.Admission admission = fileConfig.getAdmission();
+        this.nodeSlots = new Semaphore(admission.getMaxConcurrentUploads(), true);
+
+        Gauge.builder(METRIC_PREFIX + ".active", activeUploads, AtomicInteger::get)
+                .description("正在处理的上传请求数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", queueDepth, AtomicInteger::get)
+                .description("等待上传槽位的请求数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".bytes.in.flight", bytesInFlight, AtomicLong::get)
+                .description("在途上传字节数")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        log.info("上传准入控制初始化完成，节点并发：{}，用户并发：{}，在途字节上限：{}",
+                admission.getMaxConcurrentUploads(), admission.getMaxConcurrentUploadsPerUser(),
+                admission.getMaxBytesInFlight());
+    }
+
+    /**
+     * 申请上传许可
+     *
+     * @param userId   上传用户ID，为空时不做用户级限制
+     * @param fileSize 上传请求大小（字节）
+     * @return 上传许可，使用完毕后必须关闭
+     */
+    public UploadPermit acquire(Long userId, long fileSize) {
+        FileConfig.Admission admission = fileConfig.getAdmission();
+        if (!Boolean.TRUE.equals(admission.getEnabled())) {
+            return UploadPermit.NOOP;
+        }
+
+        // 1. 在途字节额度
+        if (!reserveBytes(fileSize, admission.getMaxBytesInFlight())) {
+            throw reject("bytes", "上传流量繁忙，请稍后重试");
+        }
+
+        // 2. 用户并发
+        if (userId != null && !acquireUserSlot(userId, admission.getMaxConcurrentUploadsPerUser())) {
+            releaseBytes(fileSize);
+            throw reject("user", "同时上传的文件过多，请等待当前上传完成");
+        }
+
+        // 3. 节点并发，允许短暂排队
+        String nodeRejectReason = acquireNodeSlot(admission);
+        if (nodeRejectReason != null) {
+            if (userId != null) {
+                releaseUserSlot(userId);
+            }
+            releaseBytes(fileSize);
+            throw reject(nodeRejectReason, "上传服务繁忙，请稍后重试");
+        }
+
+        activeUploads.incrementAndGet();
+        return new UploadPermit(this, userId, fileSize);
+    }
+
+    /**
+     * 归还许可占用的资源
+     */
+    void release(Long userId, long fileSize) {
+        activeUploads.decrementAndGet();
+        nodeSlots.release();
+        if (userId != null) {
+            releaseUserSlot(userId);
+        }
+        releaseBytes(fileSize);
+    }
+
+    /**
+     * 预占在途字节额度，当前无在途上传时总是放行，避免单个大文件永远无法进入
+     */
+    private boolean reserveBytes(long fileSize, long maxBytesInFlight) {
+        while (true) {
+            long current = bytesInFlight.get();
+            if (current > 0 && current + fileSize > maxBytesInFlight) {
+                return false;
+            }
+            if (bytesInFlight.compareAndSet(current, current + fileSize)) {
+                return true;
+            }
+        }
+    }
+
+    private void releaseBytes(long fileSize) {
+        bytesInFlight.addAndGet(-fileSize);
+    }
+
+    private boolean acquireUserSlot(Long userId, int maxPerUser) {
+        boolean[] admitted = new boolean[1];
+        userUploads.compute(userId, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxPerUser) {
+                return count;
+            }
+            admitted[0] = true;
+            return current + 1;
+        });
+        return admitted[0];
+    }
+
+    private void releaseUserSlot(Long userId) {
+        userUploads.computeIfPresent(userId, (key, count) -> count <= 1 ? null : count - 1);
+    }
+
+    /**
+     * 获取节点槽位
+     *
+     * @return 获取成功返回null，否则返回拒绝原因
+     */
+    private String acquireNodeSlot(FileConfig.Admission admission) {
+        if (nodeSlots.tryAcquire()) {
+            return null;
+        }
+
+        if (queueDepth.incrementAndGet() > admission.getMaxQueueLength()) {
+            queueDepth.decrementAndGet();
+            return "queue";
+        }
+        try {
+            return nodeSlots.tryAcquire(admission.getMaxWaitMillis(), TimeUnit.MILLISECONDS) ? null : "node";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "node";
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    private UploadRejectedException reject(String reason, String message) {
+        rejectCounters.computeIfAbsent(reason, key -> Counter.builder(METRIC_PREFIX + ".rejected")
+                        .description("被拒绝的上传请求数")
+                        .tag("reason", key)
+                        .register(meterRegistry))
+                .increment();
+        log.debug("上传请求被拒绝，原因：{}，活跃上传：{}，排队：{}，在途字节：{}",
+                reason, activeUploads.get(), queueDepth.get(), bytesInFlight.get());
+        return new UploadRejectedException(reason, message, fileConfig.getAdmission().getRetryAfterSeconds());
+    }
+}
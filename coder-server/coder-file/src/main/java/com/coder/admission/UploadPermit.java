@@ -0,0 +1,39 @@
+package com.coder.admission;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 上传许可
+ * 由UploadAdmissionManager发放，上传结束后关闭以归还占用的槽位和字节额度
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+public class UploadPermit implements AutoCloseable {
+
+    /**
+     * 准入控制关闭时使用的空许可
+     */
+    static final UploadPermit NOOP = new UploadPermit(null, null, 0L);
+
+    private final UploadAdmissionManager manager;
+    private final Long userId;
+    private final long bytes;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    UploadPermit(UploadAdmissionManager manager, Long userId, long bytes) {
+        this.manager = manager;
+        this.userId = userId;
+        this.bytes = bytes;
+    }
+
+    /**
+     * 归还许可，重复调用只生效一次
+     */
+    @Override
+    public void close() {
+        if (manager != null && released.compareAndSet(false, true)) {
+            manager.release(userId, bytes);
+        }
+    }
+}
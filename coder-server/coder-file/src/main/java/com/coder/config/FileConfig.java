@@ -20,11 +20,14 @@ public class FileConfig {
     private Upload upload = new Upload();
     private Access access = new Access();
     private Storage storage = new Storage();
+    private Admission admission = new Admission();
+    private Compression compression = new Compression();
 
     @Data
     public static class Upload {
         private String basePath = "./uploads/";
         private String tempPath = "./temp/";
+        private String journalPath = "./files/.journal/"; // 上传日志目录，共享存储时需按节点区分
         private Long maxFileSize = 10485760L; // 10MB
         private Long maxRequestSize = 52428800L; // 50MB
         private List<String> allowedTypes;
@@ -53,4 +56,25 @@ public class FileConfig {
         private String rootPath = "./files/";
         private String urlPrefix = "/files";
     }
+
+    @Data
+    public static class Admission {
+        private Boolean enabled = true;
+        private Integer maxConcurrentUploads = 8; // 单节点并发上传数，需小于数据库连接池大小
+        private Integer maxConcurrentUploadsPerUser = 2; // 单用户并发上传数
+        private Long maxBytesInFlight = 536870912L; // 512MB，单节点同时处理的上传字节数
+        private Integer maxQueueLength = 16; // 等待上传槽位的最大排队数
+        private Long maxWaitMillis = 200L; // 排队最长等待时间
+        private Integer retryAfterSeconds = 2; // 拒绝时返回的Retry-After
+    }
+
+    @Data
+    public static class Compression {
+        private Boolean enabled = true;
+        private Long minSize = 1024L; // 小于该大小的文件不压缩
+        private Long maxSize = 104857600L; // 100MB，超过该大小不做在线压缩
+        private Integer threads = 2; // 生成压缩副本的后台线程数
+        private Integer queueCapacity = 256; // 等待生成的副本数上限，超出时本次不生成
+        private List<String> mimeTypes; // 可压缩的MIME类型，已压缩格式（图片、zip、ooxml等）不在此列
+    }
 }
\ No newline at end of file
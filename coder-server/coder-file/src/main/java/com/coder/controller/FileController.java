@@ -4,13 +4,20 @@ import com.coder.dto.FileCreateDTO;
 import com.coder.dto.FileQueryDTO;
 import com.coder.dto.FileUpdateDTO;
 import com.coder.result.Result;
+import com.coder.service.FileDeliveryService;
 import com.coder.service.FileService;
+import com.coder.vo.FileContentVO;
 import com.coder.vo.FileVO;
 import com.github.pagehelper.PageInfo;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import com.coder.dto.FileUploadDTO;
@@ -20,6 +27,7 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.annotation.Resource;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -38,11 +46,15 @@ public class FileController {
     @Resource
     private FileService fileService;
 
+    @Resource
+    private FileDeliveryService fileDeliveryService;
+
     @PostMapping("/upload")
     @ApiOperation("上传文件")
     public Result<FileUploadVO> uploadFile(
             @RequestParam("file") MultipartFile file,
             @Valid FileUploadDTO uploadDTO) {
+        // 准入控制由UploadAdmissionFilter在解析请求体之前完成
         FileUploadVO result = fileService.uploadFile(file, uploadDTO);
         return Result.success("文件上传成功", result);
     }
@@ -86,6 +98,31 @@ public class FileController {
         return Result.success("查询成功", fileVO);
     }
 
+    @GetMapping("/content/{id}")
+    @ApiOperation("下载文件内容（按Accept-Encoding协商压缩）")
+    public ResponseEntity<FileSystemResource> getFileContent(
+            @ApiParam(value = "文件ID", required = true)
+            @PathVariable @NotNull(message = "文件ID不能为空") Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        FileContentVO content = fileDeliveryService.getFileContent(id, acceptEncoding);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(content.getMimeType()));
+        headers.setContentLength(content.getContentLength());
+        headers.setContentDisposition(ContentDisposition.inline()
+                .filename(content.getFileName(), StandardCharsets.UTF_8)
+                .build());
+        if (content.getContentEncoding() != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, content.getContentEncoding());
+        }
+        if (Boolean.TRUE.equals(content.getNegotiable())) {
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new FileSystemResource(content.getPath()));
+    }
+
     @GetMapping("/list")
     @ApiOperation("分页查询文件列表")
     public Result<PageInfo<FileVO>> getFileList(FileQueryDTO queryDTO) {
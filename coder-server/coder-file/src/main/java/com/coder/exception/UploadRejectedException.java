@@ -0,0 +1,39 @@
+package com.coder.exception;
+
+import com.coder.result.ResultCode;
+
+/**
+ * 上传准入拒绝异常
+ * 节点或用户上传并发已满时抛出，由UploadAdmissionFilter转换为429响应
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+public class UploadRejectedException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 拒绝原因：node-节点并发已满，queue-排队已满，user-用户并发已满，bytes-在途字节已满
+     */
+    private final String reason;
+
+    /**
+     * 建议客户端重试的间隔（秒）
+     */
+    private final int retryAfterSeconds;
+
+    public UploadRejectedException(String reason, String message, int retryAfterSeconds) {
+        super(ResultCode.TOO_MANY_REQUESTS, message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,224 @@
+package com.coder.journal;
+
+import com.coder.config.FileConfig;
+import com.coder.mapper.FileMapper;
+import com.coder.utils.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * 上传日志
+ *
+ * 保证磁盘文件与sys_file记录一致：
+ *     1. 写入前记录上传意图（INTENT）
+ *     2. 内容写入.part临时文件并刷盘，完成后原子重命名为正式文件（WRITTEN）
+ *     3. 数据库事务提交后删除日志；事务回滚则删除文件和日志
+ * 启动时扫描残留日志：数据库中已有记录则前滚保留文件，否则清理文件；
+ * 写日志时崩溃残留的.json.tmp临时文件直接删除（原日志仍在或尚未写入任何内容）
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@Slf4j
+@Component
+public class UploadJournal {
+
+    private static final String JOURNAL_SUFFIX = ".json";
+    private static final String PART_SUFFIX = ".part";
+    private static final String TEMP_SUFFIX = JOURNAL_SUFFIX + ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Resource
+    private FileConfig fileConfig;
+
+    @Resource
+    private FileMapper fileMapper;
+
+    private Path journalDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.journalDir = Paths.get(fileConfig.getUpload().getJournalPath());
+        Files.createDirectories(journalDir);
+        recover();
+    }
+
+    /**
+     * 记录上传意图
+     *
+     * @param filePath 正式文件路径
+     * @param fileMd5  文件MD5值
+     * @return 日志记录
+     */
+    public UploadJournalEntry begin(String filePath, String fileMd5) throws IOException {
+        UploadJournalEntry entry = new UploadJournalEntry();
+        entry.setUploadId(UUID.randomUUID().toString().replace("-", ""));
+        entry.setFilePath(filePath);
+        entry.setPartPath(filePath + PART_SUFFIX);
+        entry.setFileMd5(fileMd5);
+        entry.setState(UploadJournalEntry.STATE_INTENT);
+        entry.setCreateTime(System.currentTimeMillis());
+        writeEntry(entry);
+        return entry;
+    }
+
+    /**
+     * 写入文件内容：先写临时文件并刷盘，再原子重命名为正式文件
+     */
+    public void write(UploadJournalEntry entry, MultipartFile file) throws IOException {
+        Path partPath = Paths.get(entry.getPartPath());
+        try (InputStream in = file.getInputStream();
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(partPath,
+                     StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+            target.force(true);
+        }
+
+        Files.move(partPath, Paths.get(entry.getFilePath()), StandardCopyOption.ATOMIC_MOVE);
+        entry.setState(UploadJournalEntry.STATE_WRITTEN);
+        writeEntry(entry);
+    }
+
+    /**
+     * 将日志记录的收尾绑定到当前事务：提交后删除日志，回滚后删除文件和日志
+     * 没有活动事务时保留日志，交由启动恢复按数据库记录处理
+     */
+    public void bindToTransaction(UploadJournalEntry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("当前没有活动事务，上传日志将在重启时恢复，上传标识：{}", entry.getUploadId());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    commit(entry);
+                } else {
+                    rollback(entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * 提交：文件已入库，删除日志
+     */
+    public void commit(UploadJournalEntry entry) {
+        deleteQuietly(journalFile(entry.getUploadId()));
+    }
+
+    /**
+     * 回滚：删除临时文件、正式文件和日志
+     */
+    public void rollback(UploadJournalEntry entry) {
+        log.info("上传未入库，清理文件：{}", entry.getFilePath());
+        deleteQuietly(Paths.get(entry.getPartPath()));
+        deleteQuietly(Paths.get(entry.getFilePath()));
+        deleteQuietly(journalFile(entry.getUploadId()));
+    }
+
+    /**
+     * 启动恢复：处理上次运行残留的日志
+     */
+    private void recover() throws IOException {
+        // 写日志中途崩溃残留的临时文件：替换前的日志仍完整保留，或者还没有开始写入文件内容
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDir, "*" + TEMP_SUFFIX)) {
+            for (Path temp : stream) {
+                deleteQuietly(temp);
+            }
+        }
+
+        int rolledForward = 0;
+        int cleaned = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDir, "*" + JOURNAL_SUFFIX)) {
+            for (Path journal : stream) {
+                UploadJournalEntry entry = readEntry(journal);
+                if (entry == null) {
+                    log.warn("上传日志无法解析，直接删除：{}", journal);
+                    deleteQuietly(journal);
+                    continue;
+                }
+
+                if (fileMapper.countByFilePath(entry.getFilePath()) > 0) {
+                    // 数据库已有记录，说明事务已提交，仅日志未来得及删除
+                    deleteQuietly(Paths.get(entry.getPartPath()));
+                    commit(entry);
+                    rolledForward++;
+                } else {
+                    rollback(entry);
+                    cleaned++;
+                }
+            }
+        }
+        if (rolledForward > 0 || cleaned > 0) {
+            log.info("上传日志恢复完成，前滚：{}，清理：{}", rolledForward, cleaned);
+        }
+    }
+
+    /**
+     * 写入日志记录：先写临时文件再原子替换，避免读到写了一半的日志
+     */
+    private void writeEntry(UploadJournalEntry entry) throws IOException {
+        Path journal = journalFile(entry.getUploadId());
+        Path temp = journalDir.resolve(entry.getUploadId() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(JsonUtils.toJson(entry).getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private UploadJournalEntry readEntry(Path journal) {
+        try {
+            String json = new String(Files.readAllBytes(journal), StandardCharsets.UTF_8);
+            return JsonUtils.parseObject(json, UploadJournalEntry.class);
+        } catch (Exception e) {
+            log.warn("读取上传日志失败：{}，错误：{}", journal, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path journalFile(String uploadId) {
+        return journalDir.resolve(uploadId + JOURNAL_SUFFIX);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除文件失败：{}，错误：{}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.coder.journal;
+
+import lombok.Data;
+
+/**
+ * 上传日志记录
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@Data
+public class UploadJournalEntry {
+
+    /**
+     * 状态：已记录意图，文件内容尚未完整落盘
+     */
+    public static final String STATE_INTENT = "INTENT";
+
+    /**
+     * 状态：文件已原子重命名为正式文件，等待数据库事务结果
+     */
+    public static final String STATE_WRITTEN = "WRITTEN";
+
+    /**
+     * 上传标识，同时作为日志文件名
+     */
+    private String uploadId;
+
+    /**
+     * 写入中的临时文件路径
+     */
+    private String partPath;
+
+    /**
+     * 正式文件路径，与sys_file.file_path一致
+     */
+    private String filePath;
+
+    /**
+     * 文件MD5值
+     */
+    private String fileMd5;
+
+    /**
+     * 当前状态
+     */
+    private String state;
+
+    /**
+     * 记录创建时间戳
+     */
+    private Long createTime;
+}
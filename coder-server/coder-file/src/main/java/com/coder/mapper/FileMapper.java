@@ -46,6 +46,11 @@ public interface FileMapper {
      */
     File selectByMd5(@Param("fileMd5") String fileMd5);
 
+    /**
+     * 根据存储路径统计文件记录数（包含已逻辑删除的记录）
+     */
+    int countByFilePath(@Param("filePath") String filePath);
+
     /**
      * 分页查询文件列表
      */
@@ -0,0 +1,21 @@
+package com.coder.service;
+
+import com.coder.vo.FileContentVO;
+
+/**
+ * 文件下发服务接口
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+public interface FileDeliveryService {
+
+    /**
+     * 根据Accept-Encoding协商文件下发内容
+     *
+     * @param id             文件ID
+     * @param acceptEncoding 请求的Accept-Encoding头，可为空
+     * @return 下发内容
+     */
+    FileContentVO getFileContent(Long id, String acceptEncoding);
+}
@@ -0,0 +1,242 @@
+package com.coder.service.impl;
+
+import com.coder.config.FileConfig;
+import com.coder.entity.File;
+import com.coder.exception.BusinessException;
+import com.coder.mapper.FileMapper;
+import com.coder.result.ResultCode;
+import com.coder.service.FileDeliveryService;
+import com.coder.utils.FileUtils;
+import com.coder.utils.StrUtils;
+import com.coder.vo.FileContentVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 文件下发服务实现类
+ *
+ * 对可压缩的MIME类型按Accept-Encoding协商下发内容：
+ *     gzip：首次请求时提交后台任务生成.gz副本并缓存在原文件旁，副本生成前下发原文件，原文件更新后自动失效
+ * JDK不提供Brotli编码器，不协商br。
+ * 已压缩的格式（图片、zip、ooxml等）始终原样下发
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@Slf4j
+@Service
+public class FileDeliveryServiceImpl implements FileDeliveryService {
+
+    private static final String ENCODING_GZIP = "gzip";
+    private static final String SUFFIX_GZIP = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Resource
+    private FileMapper fileMapper;
+
+    @Resource
+    private FileConfig fileConfig;
+
+    /**
+     * 正在生成或等待生成的压缩副本，避免同一文件被重复提交
+     */
+    private final Map<Path, Boolean> compressing = new ConcurrentHashMap<>();
+
+    /**
+     * 生成压缩副本的后台线程池，队列满时拒绝提交，下次请求再提交
+     */
+    private ThreadPoolExecutor compressExecutor;
+
+    @PostConstruct
+    public void init() {
+        FileConfig.Compression compression = fileConfig.getCompression();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.compressExecutor = new ThreadPoolExecutor(compression.getThreads(), compression.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(compression.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-compress-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        compressExecutor.shutdownNow();
+    }
+
+    @Override
+    public FileContentVO getFileContent(Long id, String acceptEncoding) {
+        File file = fileMapper.selectById(id);
+        if (file == null) {
+            throw new BusinessException(ResultCode.DATA_NOT_FOUND, "文件不存在");
+        }
+
+        Path source = Paths.get(file.getFilePath());
+        if (!Files.isRegularFile(source)) {
+            log.warn("文件记录存在但磁盘文件缺失，文件ID：{}，路径：{}", id, source);
+            throw new BusinessException(ResultCode.DATA_NOT_FOUND, "文件不存在");
+        }
+
+        String mimeType = StrUtils.isNotBlank(file.getMimeType())
+                ? file.getMimeType() : FileUtils.getMimeType(file.getFileName());
+
+        FileContentVO content = new FileContentVO();
+        content.setFileName(file.getFileName());
+        content.setMimeType(mimeType);
+        content.setNegotiable(isCompressible(mimeType));
+
+        try {
+            long sourceSize = Files.size(source);
+            Path variant = null;
+            String encoding = null;
+
+            if (content.getNegotiable() && sourceSize >= fileConfig.getCompression().getMinSize()
+                    && qualityOf(acceptEncoding, ENCODING_GZIP) > 0) {
+                variant = freshVariant(source, SUFFIX_GZIP);
+                encoding = ENCODING_GZIP;
+                // 副本不存在或已过期时后台生成，本次先下发原文件
+                if (variant == null && sourceSize <= fileConfig.getCompression().getMaxSize()) {
+                    scheduleGzip(source);
+                }
+                // 压缩后没有变小的副本不下发
+                if (variant != null && Files.size(variant) >= sourceSize) {
+                    variant = null;
+                }
+            }
+
+            if (variant != null) {
+                content.setPath(variant);
+                content.setContentEncoding(encoding);
+                content.setContentLength(Files.size(variant));
+            } else {
+                content.setPath(source);
+                content.setContentLength(sourceSize);
+            }
+        } catch (IOException e) {
+            log.error("读取文件失败，文件ID：{}，路径：{}", id, source, e);
+            throw new BusinessException(ResultCode.OPERATION_FAILED, "读取文件失败");
+        }
+
+        return content;
+    }
+
+    /**
+     * 判断MIME类型是否可压缩
+     */
+    private boolean isCompressible(String mimeType) {
+        if (!Boolean.TRUE.equals(fileConfig.getCompression().getEnabled()) || StrUtils.isBlank(mimeType)) {
+            return false;
+        }
+        List<String> mimeTypes = fileConfig.getCompression().getMimeTypes();
+        return mimeTypes != null && mimeTypes.contains(mimeType);
+    }
+
+    /**
+     * 获取不早于原文件的压缩副本
+     */
+    private Path freshVariant(Path source, String suffix) throws IOException {
+        Path variant = source.resolveSibling(source.getFileName() + suffix);
+        if (Files.isRegularFile(variant)
+                && Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+            return variant;
+        }
+        return null;
+    }
+
+    /**
+     * 提交gzip副本生成任务，同一副本同时只提交一次
+     */
+    private void scheduleGzip(Path source) {
+        Path target = source.resolveSibling(source.getFileName() + SUFFIX_GZIP);
+        if (compressing.putIfAbsent(target, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            compressExecutor.execute(() -> {
+                try {
+                    compressGzip(source, target);
+                } finally {
+                    compressing.remove(target);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compressing.remove(target);
+            log.debug("压缩队列已满，下次请求再生成副本，路径：{}", target);
+        }
+    }
+
+    /**
+     * 生成gzip副本：先写临时文件，再原子重命名，读者不会看到写了一半的副本
+     */
+    private void compressGzip(Path source, Path target) {
+
+        Path temp = source.resolveSibling(source.getFileName() + SUFFIX_GZIP + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)) {
+                Files.copy(source, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("生成gzip副本成功，路径：{}", target);
+        } catch (IOException e) {
+            log.warn("生成gzip副本失败，路径：{}，错误：{}", source, e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 临时文件清理失败不影响下发
+            }
+        }
+    }
+
+    /**
+     * 解析Accept-Encoding中指定编码的q值，未声明时按通配符*处理
+     */
+    private double qualityOf(String acceptEncoding, String coding) {
+        if (StrUtils.isBlank(acceptEncoding)) {
+            return 0;
+        }
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                return quality;
+            }
+            if ("*".equals(name)) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+}
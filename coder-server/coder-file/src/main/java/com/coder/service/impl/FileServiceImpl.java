@@ -6,6 +6,8 @@ import com.coder.dto.FileQueryDTO;
 import com.coder.dto.FileUpdateDTO;
 import com.coder.entity.File;
 import com.coder.exception.BusinessException;
+import com.coder.journal.UploadJournal;
+import com.coder.journal.UploadJournalEntry;
 import com.coder.mapper.FileMapper;
 import com.coder.result.ResultCode;
 import com.coder.service.FileService;
@@ -24,11 +26,6 @@ import com.coder.utils.FileUtils;
 import com.coder.vo.FileUploadVO;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
 import javax.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -56,6 +53,9 @@ public class FileServiceImpl implements FileService {
     @Resource
     private FileRecordService fileRecordService;
 
+    @Resource
+    private UploadJournal uploadJournal;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public FileUploadVO uploadFile(MultipartFile file, FileUploadDTO uploadDTO) {
@@ -84,9 +84,10 @@ public class FileServiceImpl implements FileService {
             // 4. 创建存储目录
             FileUtils.createDirectories(fullStoragePath);
 
-            // 5. 保存文件到磁盘
-            Path destPath = Paths.get(filePath);
-            Files.copy(file.getInputStream(), destPath);
+            // 5. 记录上传意图后写入磁盘，事务提交后清除日志，回滚则删除文件
+            UploadJournalEntry journalEntry = uploadJournal.begin(filePath, fileMd5);
+            uploadJournal.bindToTransaction(journalEntry);
+            uploadJournal.write(journalEntry, file);
 
             // 6. 构建文件创建DTO
             FileCreateDTO createDTO = buildFileCreateDTO(file, uploadDTO, fileMd5,
@@ -83,6 +83,27 @@ public class FileUtils {
                 return "application/msword";
             case "docx":
                 return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+            case "xls":
+                return "application/vnd.ms-excel";
+            case "xlsx":
+                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case "ppt":
+                return "application/vnd.ms-powerpoint";
+            case "pptx":
+                return "application/vnd.openxmlformats-officedocument.presentationml.presentation";
+            case "bmp":
+                return "image/bmp";
+            case "webp":
+                return "image/webp";
+            case "txt":
+            case "log":
+                return "text/plain";
+            case "md":
+                return "text/markdown";
+            case "zip":
+                return "application/zip";
+            case "rar":
+                return "application/vnd.rar";
             default:
                 return "application/octet-stream";
         }
@@ -0,0 +1,46 @@
+package com.coder.vo;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * 文件下发内容
+ * 描述一次下载实际要写出的磁盘文件及其编码，不直接返回给前端
+ *
+ * @author Sunset
+ * @date 2025-8-22
+ */
+@Data
+public class FileContentVO {
+
+    /**
+     * 实际写出的文件（原文件或其压缩副本）
+     */
+    private Path path;
+
+    /**
+     * 内容编码：gzip，原文件为null
+     */
+    private String contentEncoding;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 原始文件MIME类型
+     */
+    private String mimeType;
+
+    /**
+     * 写出内容的字节数
+     */
+    private Long contentLength;
+
+    /**
+     * 该文件是否存在压缩副本协商（决定是否返回Vary头）
+     */
+    private Boolean negotiable;
+}
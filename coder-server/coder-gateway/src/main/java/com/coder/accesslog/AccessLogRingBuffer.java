@@ -0,0 +1,132 @@
+package com.coder.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 访问日志环形缓冲区（多生产者、单消费者，无锁）
+ *
+ * 槽位在创建时一次性分配并循环复用，事件循环线程发布日志只做一次CAS和字段赋值。
+ * 生产者按序号认领槽位，写完字段后发布序号；消费者按序号顺序读取已发布的槽位。
+ * 缓冲区已满时丢弃新日志并计数，不阻塞生产者。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public class AccessLogRingBuffer {
+
+    private final Slot[] slots;
+    private final int mask;
+
+    /**
+     * 每个槽位最近一次发布的序号，消费者据此判断槽位是否写完
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * 下一个可认领的序号
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * 消费者下一个要读取的序号
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public AccessLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            published.set(i, i - size);
+        }
+    }
+
+    /**
+     * 发布一条访问日志
+     *
+     * @return 缓冲区已满时返回false
+     */
+    public boolean publish(long timestamp, String method, String routeId, String path, int status,
+                           long latencyNanos, Long userId, long bytes) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() >= slots.length) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        Slot slot = slots[index];
+        slot.timestamp = timestamp;
+        slot.method = method;
+        slot.routeId = routeId;
+        slot.path = path;
+        slot.status = status;
+        slot.latencyNanos = latencyNanos;
+        slot.userId = userId;
+        slot.bytes = bytes;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * 读取下一条已发布的日志，只能由消费者线程调用
+     *
+     * @param consumer 日志处理
+     * @return 没有已发布的日志时返回false
+     */
+    public boolean poll(SlotConsumer consumer) {
+        long sequence = head.get();
+        int index = (int) (sequence & mask);
+        if (published.get(index) != sequence) {
+            return false;
+        }
+        Slot slot = slots[index];
+        consumer.accept(slot);
+        slot.method = null;
+        slot.routeId = null;
+        slot.path = null;
+        slot.userId = null;
+        head.lazySet(sequence + 1);
+        return true;
+    }
+
+    /**
+     * 因缓冲区已满丢弃的日志数
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * 日志槽位，字段只在发布后、回收前由消费者读取
+     */
+    public static final class Slot {
+        long timestamp;
+        String method;
+        String routeId;
+        String path;
+        int status;
+        long latencyNanos;
+        Long userId;
+        long bytes;
+    }
+
+    /**
+     * 槽位处理回调
+     */
+    @FunctionalInterface
+    public interface SlotConsumer {
+        void accept(Slot slot);
+    }
+}
@@ -0,0 +1,152 @@
+package com.coder.accesslog;
+
+import com.coder.config.GatewayConfig;
+import com.coder.metrics.GatewayMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 访问日志写入器
+ *
+ * 请求线程只把日志字段写入AccessLogRingBuffer，由后台线程批量取出、格式化后交给
+ * ACCESS_LOGGER（logback-spring.xml中的滚动文件，不向上级传递），事件循环线程不做格式化和IO。
+ *
+ * 每行一条，字段以制表符分隔：
+ *     时间  方法  路由ID  状态码  耗时（微秒）  用户ID  响应字节数  路径
+ * 路径为未解码的原始路径，其中的控制字符再转义为%XX，请求无法通过%0A、%09伪造日志行或字段。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+    /**
+     * 访问日志专用Logger，名称与logback-spring.xml一致
+     */
+    private static final Logger ACCESS_LOGGER = LoggerFactory.getLogger("ACCESS_LOG");
+
+    private static final DateTimeFormatter TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /**
+     * 缓冲区为空时后台线程的休眠时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final String NONE = "-";
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    private AccessLogRingBuffer ringBuffer;
+
+    private Thread drainer;
+
+    private volatile boolean running;
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    @PostConstruct
+    public void init() {
+        this.ringBuffer = new AccessLogRingBuffer(gatewayConfig.getAccessLog().getBufferSize());
+        gatewayMetrics.monitorCounter("gateway.access.log.dropped", "缓冲区已满丢弃的访问日志数",
+                ringBuffer, AccessLogRingBuffer::getDropped);
+
+        this.running = true;
+        this.drainer = new Thread(this::drainLoop, "gateway-access-log");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 发布一条访问日志，缓冲区已满时丢弃
+     */
+    public void publish(long timestamp, String method, String routeId, String path, int status,
+                        long latencyNanos, Long userId, long bytes) {
+        ringBuffer.publish(timestamp, method, routeId, path, status, latencyNanos, userId, bytes);
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (!drain()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        // 停止前写完剩余日志
+        drain();
+    }
+
+    /**
+     * 取出缓冲区中全部已发布的日志
+     *
+     * @return 是否取到日志
+     */
+    private boolean drain() {
+        boolean drained = false;
+        try {
+            while (ringBuffer.poll(this::write)) {
+                drained = true;
+            }
+        } catch (Exception e) {
+            log.warn("写入访问日志失败: {}", e.getMessage());
+        }
+        return drained;
+    }
+
+    private void write(AccessLogRingBuffer.Slot slot) {
+        line.setLength(0);
+        TIME_FORMATTER.formatTo(Instant.ofEpochMilli(slot.timestamp), line);
+        line.append('\t').append(slot.method)
+                .append('\t').append(slot.routeId != null ? slot.routeId : NONE)
+                .append('\t').append(slot.status)
+                .append('\t').append(TimeUnit.NANOSECONDS.toMicros(slot.latencyNanos))
+                .append('\t').append(slot.userId != null ? slot.userId.toString() : NONE)
+                .append('\t').append(slot.bytes)
+                .append('\t');
+        appendEscaped(slot.path);
+        ACCESS_LOGGER.info(line.toString());
+    }
+
+    /**
+     * 写入路径，控制字符转义为%XX
+     */
+    private void appendEscaped(String path) {
+        if (path == null) {
+            line.append(NONE);
+            return;
+        }
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c < 0x20 || c == 0x7f) {
+                line.append('%').append(HEX[c >> 4]).append(HEX[c & 0xf]);
+            } else {
+                line.append(c);
+            }
+        }
+    }
+}
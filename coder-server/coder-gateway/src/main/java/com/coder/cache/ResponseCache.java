@@ -0,0 +1,172 @@
+package com.coder.cache;
+
+import com.coder.config.GatewayConfig;
+import com.coder.constant.Constants;
+import com.coder.dto.CachedResponse;
+import com.coder.metrics.GatewayMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 网关响应缓存
+ *
+ * 键以规则ID开头（规则ID:用户ID或*:路径?查询参数），coder-user在数据变更提交后向
+ * Constants.CacheKey.DATA_CHANGE_CHANNEL发布变更类型，收到后清除invalidateOn包含该类型的规则下的全部条目。
+ * 订阅未建立或已断开时不返回缓存，避免错过失效消息。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    @Resource
+    private ReactiveRedisMessageListenerContainer listenerContainer;
+
+    private Cache<String, CachedResponse> cache;
+
+    /**
+     * 订阅是否已建立，仅在订阅有效期间读写缓存
+     */
+    private volatile boolean subscribed = false;
+
+    /**
+     * 失效代数，每次失效递增；请求转发期间代数变化则不写入，防止旧响应覆盖失效
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Disposable subscription;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(gatewayConfig.getResponseCache().getMaxSize())
+                .recordStats()
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        long remainingMillis = value.getExpiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        gatewayMetrics.monitorCache(cache, "gateway.response");
+
+        this.subscription = listenerContainer.receiveLater(ChannelTopic.of(Constants.CacheKey.DATA_CHANGE_CHANNEL))
+                .doOnNext(messages -> {
+                    invalidateAll();
+                    subscribed = true;
+                    log.info("已订阅数据变更频道: {}", Constants.CacheKey.DATA_CHANGE_CHANNEL);
+                })
+                .flatMapMany(Function.identity())
+                .doOnNext(message -> invalidate(message.getMessage()))
+                .doOnError(e -> {
+                    subscribed = false;
+                    invalidateAll();
+                    log.warn("数据变更订阅中断，暂停响应缓存: {}", e.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Nacos配置刷新后缓存规则可能已变化，清空全部缓存
+     */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange() {
+        invalidateAll();
+    }
+
+    /**
+     * 当前失效代数，转发请求前获取，写入缓存时传回
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 获取缓存的响应
+     *
+     * @param key 缓存键
+     * @return 缓存的响应，未命中或订阅未建立时返回null
+     */
+    public CachedResponse get(String key) {
+        if (!subscribed) {
+            return null;
+        }
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 缓存响应，转发期间发生过失效则放弃
+     *
+     * @param key                缓存键
+     * @param response           响应
+     * @param expectedGeneration 转发前获取的失效代数
+     */
+    public void put(String key, CachedResponse response, long expectedGeneration) {
+        if (subscribed && generation.get() == expectedGeneration) {
+            cache.put(key, response);
+        }
+    }
+
+    /**
+     * 清除受该数据变更类型影响的规则下的全部缓存
+     */
+    private void invalidate(String changeType) {
+        generation.incrementAndGet();
+        for (GatewayConfig.ResponseCacheRule rule : gatewayConfig.getResponseCache().getRules()) {
+            if (rule.getInvalidateOn() != null && rule.getInvalidateOn().contains(changeType)) {
+                String prefix = rule.getId() + ":";
+                cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+                log.debug("数据变更，清除响应缓存: type={}, rule={}", changeType, rule.getId());
+            }
+        }
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
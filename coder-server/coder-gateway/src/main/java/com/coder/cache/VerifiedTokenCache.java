@@ -0,0 +1,109 @@
+package com.coder.cache;
+
+import com.coder.config.GatewayConfig;
+import com.coder.dto.TokenClaims;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.utils.JwtUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证Token缓存
+ *
+ * 以Token的SHA-256摘要为键缓存验签结果，条目在Token的exp时刻过期，
+ * 同一会话的后续请求无需再次验签和解析。
+ * 缓存只替代验签，登录状态（是否已登出/被替换）仍由LoginStateService检查。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256算法不可用", e);
+        }
+    });
+
+    @Resource
+    private JwtUtils jwtUtils;
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    private Cache<String, TokenClaims> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(gatewayConfig.getTokenCache().getMaxSize())
+                .recordStats()
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims value, long currentTime) {
+                        long remainingMillis = value.getExpiration() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        gatewayMetrics.monitorCache(cache, "gateway.token");
+    }
+
+    /**
+     * 获取Token声明，命中缓存时跳过验签
+     *
+     * @param token JWT Token
+     * @return Token声明
+     * @throws io.jsonwebtoken.JwtException Token无效或已过期
+     */
+    public TokenClaims verify(String token) {
+        if (!Boolean.TRUE.equals(gatewayConfig.getTokenCache().getEnabled())) {
+            return jwtUtils.parseToken(token);
+        }
+
+        String key = digest(token);
+        TokenClaims claims = cache.getIfPresent(key);
+        if (claims != null && !claims.isExpired(System.currentTimeMillis())) {
+            return claims;
+        }
+
+        claims = jwtUtils.parseToken(token);
+        cache.put(key, claims);
+        return claims;
+    }
+
+    private String digest(String token) {
+        MessageDigest messageDigest = SHA256.get();
+        messageDigest.reset();
+        byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
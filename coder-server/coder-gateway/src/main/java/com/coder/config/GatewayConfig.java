@@ -0,0 +1,290 @@
+package com.coder.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关配置类
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway")
+public class GatewayConfig {
+
+    // 不需要认证的路径，见PathPatternMatcher
+    private List<String> anonymousPaths = new ArrayList<>(Arrays.asList(
+            "/coder/auth/login/**",
+            "/coder/auth/register/**",
+            "/coder/auth/forgot-password/**",
+            "/coder/auth/reset-password/**",
+            "/coder/auth/send-email-code/**",
+            "/actuator/health/**"
+    ));
+    private TokenCache tokenCache = new TokenCache();
+    private LoginCache loginCache = new LoginCache();
+    private RateLimit rateLimit = new RateLimit();
+    private ResponseCache responseCache = new ResponseCache();
+    private RequestCoalescing requestCoalescing = new RequestCoalescing();
+    private LoadBalancer loadBalancer = new LoadBalancer();
+    private Resilience resilience = new Resilience();
+    private PermissionClaims permissionClaims = new PermissionClaims();
+    private EdgeAuthorization edgeAuthorization = new EdgeAuthorization();
+    private Upload upload = new Upload();
+    private Hedging hedging = new Hedging();
+    private Retry retry = new Retry();
+    private Http2 http2 = new Http2();
+    private AccessLog accessLog = new AccessLog();
+    private Compression compression = new Compression();
+    private Warmup warmup = new Warmup();
+
+    @Data
+    public static class TokenCache {
+        private Boolean enabled = true;
+        private Long maxSize = 100000L; // 最多缓存的已验证Token数
+    }
+
+    @Data
+    public static class LoginCache {
+        private Boolean enabled = true;
+        private Long maxSize = 100000L; // 最多缓存的用户登录状态数
+        private Long expireSeconds = 300L; // 兜底过期时间，防止失效消息丢失后长期使用旧状态
+    }
+
+    @Data
+    public static class RateLimit {
+        private Boolean enabled = true;
+        private Boolean trustForwardedFor = false; // 是否信任X-Forwarded-For
+        private Integer trustedProxies = 1; // 网关前的可信代理层数，取X-Forwarded-For从右往左第N个条目
+        private Long localMaxSize = 100000L; // 本地令牌桶最大数量
+        private List<RateLimitRule> rules = new ArrayList<>();
+    }
+
+    /**
+     * 按路由ID和路径匹配的规则
+     */
+    @Data
+    public static class RouteRule {
+        private String id; // 规则标识
+        private String routeId; // 匹配的路由ID，为空表示任意路由
+        private List<String> paths = new ArrayList<>(); // 匹配的路径（Ant风格），为空表示路由下全部路径
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class RateLimitRule extends RouteRule {
+        private Bucket user; // 按用户限流
+        private Bucket ip; // 按客户端IP限流
+        private Bucket route; // 按规则整体限流
+    }
+
+    @Data
+    public static class Bucket {
+        private Integer capacity; // 桶容量，即允许的突发请求数
+        private Double replenishRate; // 每秒补充的令牌数
+    }
+
+    @Data
+    public static class ResponseCache {
+        private Boolean enabled = true;
+        private Long maxSize = 10000L; // 最多缓存的响应数
+        private Integer maxBodySize = 256 * 1024; // 单个响应体上限（字节），超出不缓存
+        private List<ResponseCacheRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class ResponseCacheRule extends RouteRule {
+        private Boolean shared = false; // 响应与用户无关时为true，所有用户共享同一份缓存
+        private Long ttlSeconds = 300L; // 缓存时间，下游Cache-Control的max-age更短时以其为准
+        private List<String> invalidateOn = new ArrayList<>(); // 触发失效的数据变更类型，见Constants.DataChange
+    }
+
+    @Data
+    public static class RequestCoalescing {
+        private Boolean enabled = true;
+        private Long maxWaitMillis = 1000L; // 跟随请求最长等待时间，超时后自行转发
+        private Integer maxBodySize = 1024 * 1024; // 可共享的响应体上限（字节）
+        private List<CoalescingRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class CoalescingRule extends RouteRule {
+        private Boolean shared = false; // 响应与用户无关时为true，不同用户的相同请求也合并
+    }
+
+    @Data
+    public static class LoadBalancer {
+        private List<String> latencyAwareServices = new ArrayList<>(); // 使用延迟感知负载均衡的服务，其余服务轮询
+        private Long decayMillis = 10000L; // EWMA衰减时间常数
+        private Integer consecutiveFailures = 5; // 连续失败多少次后摘除实例
+        private Long baseEjectionMillis = 30000L; // 首次摘除时长，再次摘除按次数倍增
+        private Long maxEjectionMillis = 300000L; // 最长摘除时长
+        private Integer maxEjectionPercent = 50; // 同一服务最多摘除的实例比例
+    }
+
+    @Data
+    public static class Resilience {
+        private Boolean enabled = true;
+        private Map<String, RouteResilience> routes = new LinkedHashMap<>(); // 键为路由ID
+    }
+
+    @Data
+    public static class RouteResilience {
+        private Integer maxConcurrentCalls; // 舱壁：路由最大并发请求数，为空表示不限制
+        private Integer failureRateThreshold = 50; // 失败率阈值（%），达到后熔断
+        private Long slowCallMillis = 5000L; // 超过该耗时记为慢调用
+        private Integer slowCallRateThreshold = 80; // 慢调用比例阈值（%），达到后熔断
+        private Integer slidingWindowSize = 20; // 统计最近多少次调用
+        private Integer minimumNumberOfCalls = 10; // 至少多少次调用后才计算失败率
+        private Long waitInOpenMillis = 10000L; // 熔断后多久进入半开状态
+        private Integer permittedHalfOpenCalls = 3; // 半开状态放行的探测请求数
+        private Fallback fallback; // 熔断或舱壁满时的降级响应，为空时返回503
+    }
+
+    @Data
+    public static class Fallback {
+        private Integer status = 503; // HTTP状态码
+        private Integer code = 503; // 响应体中的业务码
+        private String message = "服务暂时不可用，请稍后重试";
+    }
+
+    @Data
+    public static class PermissionClaims {
+        private Boolean enabled = true;
+        private Long maxSize = 100000L; // 最多缓存的用户权限声明数
+        private Long ttlSeconds = 300L; // 本地缓存时间，权限声明的有效期在此基础上再延长60秒
+        private String userServiceUri = "lb://coder-user"; // 查询权限位图的用户服务地址
+    }
+
+    @Data
+    public static class EdgeAuthorization {
+        private Boolean enabled = true;
+        private List<String> routeIds = new ArrayList<>(); // 在网关鉴权的路由ID，路由对应的服务需提供接口权限表
+        private Long refreshSeconds = 30L; // 检查接口权限表版本的间隔
+        private String userServiceUri = "lb://coder-user"; // 查询接口权限表的用户服务地址
+    }
+
+    @Data
+    public static class Upload {
+        private Boolean enabled = true;
+        private Map<String, UploadPolicy> routes = new LinkedHashMap<>(); // 键为路由ID
+    }
+
+    @Data
+    public static class UploadPolicy {
+        private Long maxBytes = 500L * 1024 * 1024; // 单次请求体上限（字节）
+        private Boolean requireContentLength = false; // 是否拒绝未声明Content-Length的分块上传
+    }
+
+    @Data
+    public static class Hedging {
+        private Boolean enabled = true;
+        private List<HedgingRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class HedgingRule extends RouteRule {
+        private Integer percentile = 95; // 首次请求超过最近耗时的该百分位仍未响应时发出对冲请求
+        private Long minDelayMillis = 10L; // 对冲延迟下限
+        private Long maxDelayMillis = 500L; // 对冲延迟上限，样本不足时使用
+        private Integer minSamples = 100; // 计算百分位所需的最少样本数
+        private Integer budgetPercent = 10; // 对冲请求数占请求数的上限（%）
+        private Long maxBodyBytes = 256L * 1024; // 可对冲响应体上限，超过或长度未知的响应在响应头到达时即采用并流式转发，不缓存响应体
+    }
+
+    @Data
+    public static class Retry {
+        private Boolean enabled = true;
+        private List<RetryRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class RetryRule extends RouteRule {
+        private List<String> methods = new ArrayList<>(Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE")); // 可重试的幂等方法，其他方法需携带Idempotency-Key
+        private Integer maxRetries = 2; // 单个请求最多重试次数
+        private Long firstBackoffMillis = 50L; // 首次重试前的等待时间，之后指数增长并加入随机抖动
+        private Long maxBackoffMillis = 500L;
+        private Integer budgetPercent = 10; // 重试请求数占请求数的上限（%）
+        private Long maxBodyBytes = 64L * 1024; // 可重试请求体上限，请求体需缓存以便重发，超过或分块传输的请求不重试
+        private Boolean retryOnTimeout = false; // 下游响应超时（504）后是否重试
+    }
+
+    @Data
+    public static class Http2 {
+        private Boolean enabled = true;
+        private Map<String, Http2Route> routes = new LinkedHashMap<>(); // 键为路由ID，未配置的路由使用HTTP/1.1
+    }
+
+    @Data
+    public static class Http2Route {
+        private Boolean priorKnowledge = false; // true：直接使用h2c；false：通过Upgrade协商，下游不支持时回退HTTP/1.1
+        private Long maxConcurrentStreams = 100L; // 单个连接最大并发流数，不超过下游SETTINGS_MAX_CONCURRENT_STREAMS
+        private Integer maxConnections = 4; // 每个下游实例最大连接数
+    }
+
+    @Data
+    public static class AccessLog {
+        private Boolean enabled = true;
+        private String dir = "./logs"; // 日志目录，由logback-spring.xml读取
+        private Integer bufferSize = 8192; // 环形缓冲区大小（向上取2的幂），写满时丢弃新日志
+        private String level = "all"; // all：全部请求；errors：只记录状态码>=400；off：不记录
+        private Double sampleRate = 1.0; // level为all时状态码<400请求的采样比例
+        private Map<String, AccessLogRoute> routes = new LinkedHashMap<>(); // 键为路由ID，未配置的项使用全局值
+    }
+
+    @Data
+    public static class AccessLogRoute {
+        private String level;
+        private Double sampleRate;
+    }
+
+    @Data
+    public static class Compression {
+        private Boolean enabled = true;
+        private Integer minResponseSize = 1024; // 小于该大小（字节）的响应不压缩，Content-Length未知时总是压缩
+        private List<String> mimeTypes = new ArrayList<>(Arrays.asList(
+                "application/json", "application/*+json", "application/xml", "application/javascript",
+                "text/plain", "text/html", "text/css", "text/xml"
+        )); // 可压缩的Content-Type
+        private Integer level = 6; // gzip压缩级别1-9，级别越高CPU开销越大
+        private Map<String, CompressionRoute> routes = new LinkedHashMap<>(); // 键为路由ID，未配置的项使用全局值
+    }
+
+    @Data
+    public static class CompressionRoute {
+        private Boolean enabled;
+        private Integer level;
+    }
+
+    @Data
+    public static class Warmup {
+        private Boolean enabled = true;
+        private Integer connectionsPerInstance = 2; // 每个下游实例预先建立的连接数（h2c路由由连接池策略决定）
+        private String instancePath = "/actuator/health"; // 预建连接时请求的路径，只为建立连接，不关心响应状态
+        private List<WarmupRequest> requests = new ArrayList<>(); // 经过网关过滤器链的预热请求
+        private Integer concurrency = 8; // 预热请求并发数
+        private Long timeoutSeconds = 60L; // 预热超时时间，超时后直接标记为就绪
+    }
+
+    @Data
+    public static class WarmupRequest {
+        private String method = "GET";
+        private String path; // 请求路径，可带查询参数
+        private Map<String, String> headers = new LinkedHashMap<>();
+        private Integer iterations = 200; // 请求次数
+    }
+}
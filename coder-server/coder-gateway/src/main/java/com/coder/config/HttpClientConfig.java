@@ -0,0 +1,31 @@
+package com.coder.config;
+
+import com.coder.filter.RouteAwareNettyRoutingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * 下游转发客户端配置
+ * 默认的NettyRoutingFilter通过spring.cloud.gateway.global-filter.netty-routing.enabled=false关闭，
+ * 由RouteAwareNettyRoutingFilter按路由选择HTTP/1.1或h2c客户端
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public RouteAwareNettyRoutingFilter routeAwareNettyRoutingFilter(HttpClient httpClient,
+                                                                     ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                                     HttpClientProperties properties,
+                                                                     RouteHttpClients routeHttpClients) {
+        return new RouteAwareNettyRoutingFilter(httpClient, headersFilters, properties, routeHttpClients);
+    }
+}
@@ -0,0 +1,52 @@
+package com.coder.config;
+
+import com.coder.constant.Constants;
+import com.coder.utils.InternalCallSigner;
+import com.coder.utils.StrUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 网关直接调用下游服务时添加内部调用标识和签名（见InternalCallSigner）
+ * 下游AuthInterceptor只接受签名有效的内部调用，未配置coder.security.internal-secret时内部调用会被拒绝
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+@Slf4j
+@Component
+public class InternalCallSigningFilter implements ExchangeFilterFunction {
+
+    @Value("${coder.security.internal-secret:}")
+    private String internalSecret;
+
+    private InternalCallSigner signer;
+
+    @PostConstruct
+    public void init() {
+        if (StrUtils.isBlank(internalSecret)) {
+            log.warn("未配置coder.security.internal-secret，网关的内部调用不会被下游服务接受");
+            return;
+        }
+        this.signer = new InternalCallSigner(internalSecret);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        ClientRequest.Builder builder = ClientRequest.from(request)
+                .header(Constants.Http.X_INTERNAL_CALL, "true");
+        if (signer != null) {
+            builder.header(Constants.Http.X_INTERNAL_SIGNATURE, signer.sign(request.method().name(),
+                    request.url().getRawPath(), System.currentTimeMillis() / 1000));
+        }
+        return next.exchange(builder.build());
+    }
+}
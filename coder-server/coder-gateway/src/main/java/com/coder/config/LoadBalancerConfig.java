@@ -0,0 +1,17 @@
+package com.coder.config;
+
+import com.coder.loadbalancer.GatewayLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关负载均衡配置
+ * 所有服务使用LatencyAwareLoadBalancer，是否启用延迟感知由gateway.load-balancer.latency-aware-services按服务控制
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = GatewayLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,49 @@
+package com.coder.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * 网关响应式Redis配置
+ * 网关运行在Netty事件循环上，Redis访问必须使用非阻塞客户端
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Configuration
+public class ReactiveRedisConfig {
+
+    /**
+     * 配置ReactiveRedisTemplate，值序列化方式与RedisConfig保持一致，
+     * 以便读取coder-auth通过RedisTemplate写入的数据
+     *
+     * @param connectionFactory 响应式Redis连接工厂
+     * @return ReactiveRedisTemplate实例
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(RedisConfig.createJsonRedisSerializer())
+                .hashKey(new StringRedisSerializer())
+                .hashValue(RedisConfig.createJsonRedisSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+    }
+
+    /**
+     * 配置响应式消息监听容器，用于订阅登录状态变更频道
+     *
+     * @param connectionFactory 响应式Redis连接工厂
+     * @return ReactiveRedisMessageListenerContainer实例
+     */
+    @Bean
+    public ReactiveRedisMessageListenerContainer reactiveRedisMessageListenerContainer(ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+}
@@ -0,0 +1,166 @@
+package com.coder.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.netty.http.Http2AllocationStrategy;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.ProxyProvider;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * 按路由选择转发使用的HttpClient
+ *
+ * gateway.http2.routes中配置的路由使用独立连接池的h2c客户端，多个请求以流的形式复用少量连接；
+ * 其余路由使用网关默认的HTTP/1.1客户端。Nacos配置刷新后重建h2c客户端并释放旧连接池。
+ * h2c客户端与网关HttpClientFactory一样应用spring.cloud.gateway.httpclient的配置
+ * （响应头大小、初始行长度、连接超时、代理、SSL、wiretap、压缩）和全部HttpClientCustomizer。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class RouteHttpClients {
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private HttpClient httpClient;
+
+    @Resource
+    private HttpClientProperties httpClientProperties;
+
+    @Resource
+    private HttpClientSslConfigurer httpClientSslConfigurer;
+
+    @Resource
+    private ObjectProvider<HttpClientCustomizer> httpClientCustomizers;
+
+    private final ConcurrentMap<String, RouteClient> http2Clients = new ConcurrentHashMap<>();
+
+    /**
+     * 获取路由使用的HttpClient
+     *
+     * @param route 路由
+     * @return 配置了h2c时返回h2c客户端，否则返回默认客户端
+     */
+    public HttpClient get(Route route) {
+        GatewayConfig.Http2 config = gatewayConfig.getHttp2();
+        GatewayConfig.Http2Route routeConfig = route != null ? config.getRoutes().get(route.getId()) : null;
+        if (!Boolean.TRUE.equals(config.getEnabled()) || routeConfig == null) {
+            return httpClient;
+        }
+        return http2Clients.computeIfAbsent(route.getId(), id -> create(id, routeConfig)).client;
+    }
+
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange() {
+        disposeAll();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        disposeAll();
+    }
+
+    private RouteClient create(String routeId, GatewayConfig.Http2Route routeConfig) {
+        ConnectionProvider provider = ConnectionProvider.builder("gateway-h2c-" + routeId)
+                .allocationStrategy(Http2AllocationStrategy.builder()
+                        .maxConcurrentStreams(routeConfig.getMaxConcurrentStreams())
+                        .maxConnections(routeConfig.getMaxConnections())
+                        .minConnections(1)
+                        .build())
+                .build();
+
+        HttpProtocol[] protocols = Boolean.TRUE.equals(routeConfig.getPriorKnowledge())
+                ? new HttpProtocol[]{HttpProtocol.H2C}
+                : new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11};
+        HttpClient client = applyProperties(HttpClient.create(provider).protocol(protocols));
+        log.info("路由使用h2c转发: route={}, priorKnowledge={}, maxConcurrentStreams={}, maxConnections={}",
+                routeId, routeConfig.getPriorKnowledge(), routeConfig.getMaxConcurrentStreams(), routeConfig.getMaxConnections());
+        return new RouteClient(client, provider);
+    }
+
+    /**
+     * 按spring.cloud.gateway.httpclient配置客户端并应用HttpClientCustomizer，与网关默认客户端保持一致
+     */
+    private HttpClient applyProperties(HttpClient client) {
+        HttpClientProperties properties = httpClientProperties;
+        client = client.httpResponseDecoder(spec -> {
+            if (properties.getMaxHeaderSize() != null) {
+                spec.maxHeaderSize((int) properties.getMaxHeaderSize().toBytes());
+            }
+            if (properties.getMaxInitialLineLength() != null) {
+                spec.maxInitialLineLength((int) properties.getMaxInitialLineLength().toBytes());
+            }
+            return spec;
+        });
+        if (properties.getConnectTimeout() != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeout());
+        }
+
+        HttpClientProperties.Proxy proxy = properties.getProxy();
+        if (StringUtils.hasText(proxy.getHost())) {
+            client = client.proxy(spec -> {
+                ProxyProvider.Builder builder = spec.type(ProxyProvider.Proxy.HTTP).host(proxy.getHost());
+                PropertyMapper map = PropertyMapper.get();
+                map.from(proxy::getPort).whenNonNull().to(builder::port);
+                map.from(proxy::getUsername).whenHasText().to(builder::username);
+                map.from(proxy::getPassword).whenHasText().to(password -> builder.password(name -> password));
+                map.from(proxy::getNonProxyHostsPattern).whenHasText().to(builder::nonProxyHosts);
+            });
+        }
+
+        client = httpClientSslConfigurer.configureSsl(client);
+        if (properties.isWiretap()) {
+            client = client.wiretap(true);
+        }
+        if (properties.isCompression()) {
+            client = client.compress(true);
+        }
+        List<HttpClientCustomizer> customizers = httpClientCustomizers.orderedStream().collect(Collectors.toList());
+        for (HttpClientCustomizer customizer : customizers) {
+            client = customizer.customize(client);
+        }
+        return client;
+    }
+
+    private void disposeAll() {
+        for (Map.Entry<String, RouteClient> entry : http2Clients.entrySet()) {
+            if (http2Clients.remove(entry.getKey(), entry.getValue())) {
+                // 等待在途请求完成后再关闭连接
+                entry.getValue().provider.disposeLater().subscribe();
+            }
+        }
+    }
+
+    private static class RouteClient {
+        private final HttpClient client;
+        private final ConnectionProvider provider;
+
+        RouteClient(HttpClient client, ConnectionProvider provider) {
+            this.client = client;
+            this.provider = provider;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.coder.config;
+
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * WebClient配置
+ * 网关直接调用下游服务时使用，支持lb://服务名地址
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+@Configuration
+public class WebClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+}
@@ -0,0 +1,17 @@
+package com.coder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 网关缓存的下游响应
+ */
+@Data
+@AllArgsConstructor
+public class CachedResponse {
+    private String contentType;
+    private String cacheControl;
+    private String etag;
+    private byte[] body;
+    private Long expiresAt; // 过期时间戳（毫秒）
+}
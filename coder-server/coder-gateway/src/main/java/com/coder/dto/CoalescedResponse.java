@@ -0,0 +1,17 @@
+package com.coder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * 完整缓冲的下游响应，用于合并请求共享和对冲请求
+ */
+@Data
+@AllArgsConstructor
+public class CoalescedResponse {
+    private HttpStatus status;
+    private HttpHeaders headers;
+    private byte[] body;
+}
@@ -0,0 +1,25 @@
+package com.coder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 限流判定结果
+ */
+@Data
+@AllArgsConstructor
+public class RateLimitResult {
+
+    private static final RateLimitResult ALLOWED = new RateLimitResult(true, 0L);
+
+    private boolean allowed;
+    private long retryAfterSeconds; // 被拒绝时建议的重试等待时间（秒）
+
+    public static RateLimitResult allowed() {
+        return ALLOWED;
+    }
+
+    public static RateLimitResult rejected(long retryAfterMillis) {
+        return new RateLimitResult(false, Math.max(1L, (retryAfterMillis + 999L) / 1000L));
+    }
+}
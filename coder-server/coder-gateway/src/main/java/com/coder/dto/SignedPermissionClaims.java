@@ -0,0 +1,16 @@
+package com.coder.dto;
+
+import com.coder.context.PermissionClaims;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 已签名的用户权限声明
+ * 同时保存转发给下游的请求头值和解码后的权限位图，网关边缘鉴权直接使用位图，无需再验签
+ */
+@Data
+@AllArgsConstructor
+public class SignedPermissionClaims {
+    private String value; // X-User-Permissions请求头的值
+    private PermissionClaims claims;
+}
@@ -0,0 +1,20 @@
+package com.coder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 已验证的Token声明
+ * 一次解析同时得到用户名、用户ID和过期时间
+ */
+@Data
+@AllArgsConstructor
+public class TokenClaims {
+    private String username;
+    private Long userId;
+    private Long expiration; // 过期时间戳（毫秒）
+
+    public boolean isExpired(long now) {
+        return expiration <= now;
+    }
+}
@@ -1,24 +1,18 @@
 package com.coder.exception;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.coder.utils.ErrorResponseTemplate;
+import com.coder.utils.ErrorResponseUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.cloud.gateway.support.NotFoundException;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * 网关全局异常处理器
  */
@@ -27,7 +21,14 @@ import java.util.Map;
 @Component
 public class GatewayExceptionHandler implements ErrorWebExceptionHandler {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * 固定提示信息的响应体预先序列化，下游故障时大量请求走到这里
+     */
+    private static final ErrorResponseTemplate SERVICE_UNAVAILABLE = ErrorResponseTemplate.of(503, "服务暂时不可用，请稍后重试");
+    private static final ErrorResponseTemplate NOT_FOUND = ErrorResponseTemplate.of(404, "请求的服务不存在");
+    private static final ErrorResponseTemplate GATEWAY_TIMEOUT = ErrorResponseTemplate.of(504, "服务响应超时");
+    private static final ErrorResponseTemplate BAD_GATEWAY = ErrorResponseTemplate.of(502, "网关错误");
+    private static final ErrorResponseTemplate INTERNAL_ERROR = ErrorResponseTemplate.of(500, "网关内部错误");
 
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
@@ -37,9 +38,6 @@ public class GatewayExceptionHandler implements ErrorWebExceptionHandler {
             return Mono.error(ex);
         }
 
-        // 设置响应头
-        response.getHeaders().add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
-
         // 根据异常类型处理
         if (ex instanceof NotFoundException) {
             return handleNotFoundException(response, ex);
@@ -55,79 +53,41 @@ public class GatewayExceptionHandler implements ErrorWebExceptionHandler {
      * 处理服务不可用异常
      */
     private Mono<Void> handleNotFoundException(ServerHttpResponse response, Throwable ex) {
-        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("code", 503);
-        result.put("message", "服务暂时不可用，请稍后重试");
-        result.put("timestamp", System.currentTimeMillis());
-        
         log.warn("服务不可用: {}", ex.getMessage());
-        return writeResponse(response, result);
+        return ErrorResponseUtils.write(response, HttpStatus.SERVICE_UNAVAILABLE.value(), SERVICE_UNAVAILABLE);
     }
 
     /**
      * 处理响应状态异常
      */
     private Mono<Void> handleResponseStatusException(ServerHttpResponse response, ResponseStatusException ex) {
-        response.setStatusCode(ex.getStatus());
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("code", ex.getStatus().value());
-        
-        // 自定义不同状态码的消息
-        String message = getCustomMessage(ex.getStatus(), ex.getReason());
-        result.put("message", message);
-        result.put("timestamp", System.currentTimeMillis());
-        
         log.warn("响应状态异常: {} - {}", ex.getStatus(), ex.getReason());
-        return writeResponse(response, result);
+        return ErrorResponseUtils.write(response, ex.getStatus().value(), getTemplate(ex.getStatus(), ex.getReason()));
     }
 
     /**
      * 处理通用异常
      */
     private Mono<Void> handleGenericException(ServerHttpResponse response, Throwable ex) {
-        response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("code", 500);
-        result.put("message", "网关内部错误");
-        result.put("timestamp", System.currentTimeMillis());
-        
         log.error("网关异常: ", ex);
-        return writeResponse(response, result);
+        return ErrorResponseUtils.write(response, HttpStatus.INTERNAL_SERVER_ERROR.value(), INTERNAL_ERROR);
     }
 
     /**
-     * 获取自定义错误消息
+     * 获取自定义错误消息对应的响应体模板
      */
-    private String getCustomMessage(HttpStatus status, String reason) {
+    private ErrorResponseTemplate getTemplate(HttpStatus status, String reason) {
         switch (status) {
             case SERVICE_UNAVAILABLE:
-                return "服务暂时不可用，请稍后重试";
+                return SERVICE_UNAVAILABLE;
             case NOT_FOUND:
-                return "请求的服务不存在";
+                return NOT_FOUND;
             case GATEWAY_TIMEOUT:
-                return "服务响应超时";
+                return GATEWAY_TIMEOUT;
             case BAD_GATEWAY:
-                return "网关错误";
+                return BAD_GATEWAY;
             default:
-                return reason != null ? reason : "请求处理失败";
-        }
-    }
-
-    /**
-     * 写入响应
-     */
-    private Mono<Void> writeResponse(ServerHttpResponse response, Map<String, Object> result) {
-        try {
-            String json = objectMapper.writeValueAsString(result);
-            DataBuffer buffer = response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("序列化响应失败: {}", e.getMessage());
-            return response.setComplete();
+                return ErrorResponseTemplate.of(status.value(), reason != null ? reason : "请求处理失败");
         }
     }
-}
\ No newline at end of file
+}
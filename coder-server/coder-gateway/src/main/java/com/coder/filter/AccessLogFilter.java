@@ -0,0 +1,112 @@
+package com.coder.filter;
+
+import com.coder.accesslog.AccessLogWriter;
+import com.coder.config.GatewayConfig;
+import com.coder.warmup.GatewayWarmup;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 访问日志过滤器
+ *
+ * 记录方法、路由、状态码、耗时、用户ID和响应字节数，交给AccessLogWriter异步写入。
+ * 按gateway.access-log的level和sample-rate决定是否记录，可按路由覆盖：
+ *     all      记录全部请求（按采样率），状态码>=400的请求不受采样影响
+ *     errors   只记录状态码>=400的请求
+ *     off      不记录
+ * 网关启动时的预热请求不记录。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class AccessLogFilter implements GlobalFilter, Ordered {
+
+    private static final String LEVEL_ALL = "all";
+    private static final String LEVEL_ERRORS = "errors";
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private AccessLogWriter accessLogWriter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.AccessLog config = gatewayConfig.getAccessLog();
+        if (!Boolean.TRUE.equals(config.getEnabled()) || GatewayWarmup.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+        GatewayConfig.AccessLogRoute routeConfig = routeId != null ? config.getRoutes().get(routeId) : null;
+        String level = routeConfig != null && routeConfig.getLevel() != null ? routeConfig.getLevel() : config.getLevel();
+        double sampleRate = routeConfig != null && routeConfig.getSampleRate() != null
+                ? routeConfig.getSampleRate() : config.getSampleRate();
+        if (!LEVEL_ALL.equals(level) && !LEVEL_ERRORS.equals(level)) {
+            return chain.filter(exchange);
+        }
+        boolean sampled = LEVEL_ALL.equals(level)
+                && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        ByteCountingResponse response = new ByteCountingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    Integer status = response.getRawStatusCode();
+                    int statusCode = status != null ? status : 0;
+                    if (!sampled && statusCode < 400) {
+                        return;
+                    }
+                    ServerHttpRequest request = exchange.getRequest();
+                    accessLogWriter.publish(timestamp, request.getMethodValue(), routeId, request.getURI().getRawPath(),
+                            statusCode, System.nanoTime() - start,
+                            exchange.getAttribute(GatewayJwtFilter.USER_ID_ATTRIBUTE), response.bytes);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return -200; // 最先执行，耗时包含认证、限流等全部过滤器，被拒绝的请求也会记录
+    }
+
+    /**
+     * 统计写出的响应字节数
+     */
+    private static class ByteCountingResponse extends ServerHttpResponseDecorator {
+
+        private long bytes;
+
+        ByteCountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(buffer -> bytes += buffer.readableByteCount()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(part -> Flux.from(part).doOnNext(buffer -> bytes += buffer.readableByteCount())));
+        }
+    }
+}
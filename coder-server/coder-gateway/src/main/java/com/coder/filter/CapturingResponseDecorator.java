@@ -0,0 +1,69 @@
+package com.coder.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * 复制响应体的响应装饰器
+ *
+ * 响应体照常流式写给客户端，同时复制一份；写完后回调完整的响应体。
+ * 写出前按状态码和响应头判断是否需要复制，响应体超过上限时放弃复制且不回调。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final int maxBodySize;
+    private final Predicate<ServerHttpResponse> shouldCapture;
+    private final BiConsumer<ServerHttpResponse, byte[]> onCaptured;
+
+    CapturingResponseDecorator(ServerHttpResponse delegate, int maxBodySize,
+                               Predicate<ServerHttpResponse> shouldCapture,
+                               BiConsumer<ServerHttpResponse, byte[]> onCaptured) {
+        super(delegate);
+        this.maxBodySize = maxBodySize;
+        this.shouldCapture = shouldCapture;
+        this.onCaptured = onCaptured;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (!shouldCapture.test(this)) {
+            return super.writeWith(body);
+        }
+
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        boolean[] overflow = {false};
+        Flux<DataBuffer> tee = Flux.<DataBuffer>from(body)
+                .doOnNext(buffer -> {
+                    if (overflow[0]) {
+                        return;
+                    }
+                    if (captured.size() + buffer.readableByteCount() > maxBodySize) {
+                        overflow[0] = true;
+                        captured.reset();
+                        return;
+                    }
+                    ByteBuffer content = buffer.asByteBuffer();
+                    byte[] chunk = new byte[content.remaining()];
+                    content.get(chunk);
+                    captured.write(chunk, 0, chunk.length);
+                })
+                .doOnComplete(() -> {
+                    if (!overflow[0]) {
+                        onCaptured.accept(this, captured.toByteArray());
+                    }
+                });
+        return super.writeWith(tee);
+    }
+}
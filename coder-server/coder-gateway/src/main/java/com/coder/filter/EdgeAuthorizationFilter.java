@@ -0,0 +1,81 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.context.PermissionClaims;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.result.ResultCode;
+import com.coder.service.RoutePermissionService;
+import com.coder.utils.ErrorResponseTemplate;
+import com.coder.utils.ErrorResponseUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+
+/**
+ * 网关边缘鉴权过滤器
+ *
+ * 对gateway.edge-authorization.route-ids中的路由，按下游服务提供的接口权限表和GatewayJwtFilter
+ * 取得的用户权限位图判断权限，不满足的请求直接返回403，不再转发到下游服务。
+ * 无法确定时一律放行，下游PermissionAspect仍会检查，网关只负责提前拒绝。
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+@Slf4j
+@Component
+public class EdgeAuthorizationFilter implements GlobalFilter, Ordered {
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private RoutePermissionService routePermissionService;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    private static final ErrorResponseTemplate FORBIDDEN = ErrorResponseTemplate.of(ResultCode.FORBIDDEN.getCode(), "权限不足");
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.EdgeAuthorization config = gatewayConfig.getEdgeAuthorization();
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return chain.filter(exchange);
+        }
+
+        // 匿名路径和内部调用没有权限声明
+        PermissionClaims claims = exchange.getAttribute(GatewayJwtFilter.PERMISSION_CLAIMS_ATTRIBUTE);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (claims == null || route == null || !config.getRouteIds().contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getURI().getPath();
+        if (routePermissionService.isForbidden(request.getMethodValue(), path, claims)) {
+            log.debug("网关鉴权拒绝请求: userId={}, {} {}", claims.getUserId(), request.getMethodValue(), path);
+            return handleForbidden(exchange);
+        }
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> handleForbidden(ServerWebExchange exchange) {
+        gatewayMetrics.recordRejected(exchange, GatewayMetrics.REJECT_FORBIDDEN);
+        return ErrorResponseUtils.write(exchange.getResponse(), HttpStatus.FORBIDDEN.value(), FORBIDDEN);
+    }
+
+    @Override
+    public int getOrder() {
+        return -85; // 在限流之后、响应缓存之前执行，无权限的请求不会命中缓存
+    }
+}
@@ -1,29 +1,31 @@
 package com.coder.filter;
 
+import com.coder.cache.VerifiedTokenCache;
+import com.coder.config.GatewayConfig;
 import com.coder.constant.Constants;
+import com.coder.dto.SignedPermissionClaims;
+import com.coder.dto.TokenClaims;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.service.LoginStateService;
+import com.coder.service.PermissionClaimsService;
+import com.coder.utils.ErrorResponseTemplate;
+import com.coder.utils.ErrorResponseUtils;
 import com.coder.utils.JwtUtils;
-import com.coder.utils.RedisUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.coder.utils.PathPatternMatcher;
+import com.coder.warmup.GatewayWarmup;
+import io.jsonwebtoken.ExpiredJwtException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import javax.annotation.Resource;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Slf4j
 @Component
@@ -32,36 +34,57 @@ public class GatewayJwtFilter implements GlobalFilter, Ordered {
     @Resource
     private JwtUtils jwtUtils;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Resource
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Resource
+    private LoginStateService loginStateService;
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private PermissionClaimsService permissionClaimsService;
 
-    @Autowired
-    private RedisUtils redisUtils;
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    /**
+     * 认证通过后存放用户ID的交换属性，供后续过滤器使用（不信任客户端传入的X-User-Id）
+     */
+    public static final String USER_ID_ATTRIBUTE = GatewayJwtFilter.class.getName() + ".userId";
+
+    /**
+     * 认证通过后存放用户权限声明（PermissionClaims）的交换属性，未获取到权限声明时不设置
+     */
+    public static final String PERMISSION_CLAIMS_ATTRIBUTE = GatewayJwtFilter.class.getName() + ".permissionClaims";
+
+    private static final SignedPermissionClaims NO_CLAIMS = new SignedPermissionClaims(null, null);
 
-    // 不需要认证的路径
-    private static final List<String> ANONYMOUS_PATHS = Arrays.asList(
-            "/coder/auth/login",
-            "/coder/auth/register",
-            "/coder/auth/forgot-password",
-            "/coder/auth/reset-password",
-            "/coder/auth/send-email-code",
-            "/actuator/health"
-    );
+    /**
+     * 401响应体，认证失败可能集中爆发（如Token批量过期、撞库），响应体预先序列化
+     */
+    private static final ErrorResponseTemplate MISSING_TOKEN = ErrorResponseTemplate.of(401, "缺少认证Token");
+    private static final ErrorResponseTemplate TOKEN_EXPIRED = ErrorResponseTemplate.of(401, "Token无效或已过期");
+    private static final ErrorResponseTemplate AUTHENTICATION_FAILED = ErrorResponseTemplate.of(401, "认证失败");
+    private static final ErrorResponseTemplate SESSION_INVALID = ErrorResponseTemplate.of(401, "登录状态已失效");
+
+    /**
+     * 由gateway.anonymous-paths编译的匿名路径匹配器，配置刷新后按新列表重新编译
+     */
+    private volatile CompiledPaths anonymousPaths;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
 
-        // 检查是否是内部服务调用
-        String internalCall = request.getHeaders().getFirst("X-Internal-Call");
-        if ("true".equals(internalCall)) {
-            log.debug("内部服务调用，跳过认证: {}", path);
-            return chain.filter(exchange);
-        }
-
-        // 检查是否是匿名路径
-        if (isAnonymousPath(path)) {
-            return chain.filter(exchange);
+        // 检查是否是匿名路径或本机预热请求，权限声明只能由网关签发，移除客户端传入的值
+        if (isAnonymousPath(path) || GatewayWarmup.isWarmup(exchange)) {
+            ServerHttpRequest strippedRequest = request.mutate()
+                    .headers(headers -> headers.remove(Constants.Http.X_USER_PERMISSIONS))
+                    .build();
+            return chain.filter(exchange.mutate().request(strippedRequest).build());
         }
 
         // 获取Token
@@ -69,68 +92,90 @@ public class GatewayJwtFilter implements GlobalFilter, Ordered {
         String token = jwtUtils.getTokenFromHeader(authHeader);
 
         if (token == null) {
-            return handleUnauthorized(exchange, "缺少认证Token");
+            return handleUnauthorized(exchange, MISSING_TOKEN);
         }
 
+        TokenClaims claims;
+        long verifyStart = System.nanoTime();
         try {
-            // 验证Token
-            String username = jwtUtils.getUsernameFromToken(token);
-            Long userId = jwtUtils.getUserIdFromToken(token);
-
-            if (!jwtUtils.validateToken(token, username)) {
-                return handleUnauthorized(exchange, "Token无效或已过期");
-            }
-
-            // 检查Redis中的登录状态
-            String loginKey = Constants.CacheKey.USER_LOGIN + userId;
-            String cachedToken = redisUtils.get(loginKey, String.class);
-            if (cachedToken == null || !cachedToken.equals(token)) {
-                return handleUnauthorized(exchange, "登录状态已失效");
-            }
-
-            // 在请求头中添加用户信息，传递给下游服务
-            ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-Id", String.valueOf(userId))
-                    .header("X-Username", username)
-                    .header("X-Token", token)
-                    .build();
-
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
-
+            // 验证Token，同一Token验签结果会被缓存到过期为止
+            claims = verifiedTokenCache.verify(token);
+            gatewayMetrics.recordJwtVerify("success", verifyStart);
+        } catch (ExpiredJwtException e) {
+            gatewayMetrics.recordJwtVerify("expired", verifyStart);
+            return handleUnauthorized(exchange, TOKEN_EXPIRED);
         } catch (Exception e) {
+            gatewayMetrics.recordJwtVerify("invalid", verifyStart);
             log.error("JWT认证失败: {}", e.getMessage());
-            return handleUnauthorized(exchange, "认证失败");
+            return handleUnauthorized(exchange, AUTHENTICATION_FAILED);
         }
+        Long userId = claims.getUserId();
+        String username = claims.getUsername();
+
+        // 检查Redis中的登录状态（非阻塞）
+        long sessionStart = System.nanoTime();
+        return loginStateService.isCurrentToken(userId, token)
+                .flatMap(current -> {
+                    gatewayMetrics.recordSessionCheck(current ? "valid" : "invalid", sessionStart);
+                    if (!current) {
+                        return handleUnauthorized(exchange, SESSION_INVALID);
+                    }
+
+                    // 在请求头中添加用户信息和权限声明，传递给下游服务
+                    return permissionClaimsService.getSignedClaims(userId)
+                            .defaultIfEmpty(NO_CLAIMS)
+                            .flatMap(permissionClaims -> {
+                                ServerHttpRequest modifiedRequest = request.mutate()
+                                        .header("X-User-Id", String.valueOf(userId))
+                                        .header("X-Username", username)
+                                        .header("X-Token", token)
+                                        .headers(headers -> {
+                                            headers.remove(Constants.Http.X_USER_PERMISSIONS);
+                                            if (permissionClaims.getValue() != null) {
+                                                headers.set(Constants.Http.X_USER_PERMISSIONS, permissionClaims.getValue());
+                                            }
+                                        })
+                                        .build();
+
+                                exchange.getAttributes().put(USER_ID_ATTRIBUTE, userId);
+                                if (permissionClaims.getClaims() != null) {
+                                    exchange.getAttributes().put(PERMISSION_CLAIMS_ATTRIBUTE, permissionClaims.getClaims());
+                                }
+                                return chain.filter(exchange.mutate().request(modifiedRequest).build());
+                            });
+                });
     }
 
     private boolean isAnonymousPath(String path) {
-        return ANONYMOUS_PATHS.stream().anyMatch(anonymousPath -> 
-            path.equals(anonymousPath) || path.startsWith(anonymousPath + "/"));
+        List<String> patterns = gatewayConfig.getAnonymousPaths();
+        CompiledPaths compiled = anonymousPaths;
+        if (compiled == null || compiled.patterns != patterns) {
+            compiled = new CompiledPaths(patterns, PathPatternMatcher.compile(patterns));
+            anonymousPaths = compiled;
+        }
+        return compiled.matcher.matches(path);
     }
 
-    private Mono<Void> handleUnauthorized(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().add("Content-Type", "application/json;charset=UTF-8");
-
-        // 使用统一的响应格式
-        Map<String, Object> result = new HashMap<>();
-        result.put("code", 401);
-        result.put("message", message);
-        result.put("timestamp", System.currentTimeMillis());
-
-        try {
-            String json = objectMapper.writeValueAsString(result);
-            DataBuffer buffer = response.bufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("序列化响应失败: {}", e.getMessage());
-            return response.setComplete();
-        }
+    private Mono<Void> handleUnauthorized(ServerWebExchange exchange, ErrorResponseTemplate template) {
+        gatewayMetrics.recordRejected(exchange, GatewayMetrics.REJECT_UNAUTHORIZED);
+        return ErrorResponseUtils.write(exchange.getResponse(), HttpStatus.UNAUTHORIZED.value(), template);
     }
 
     @Override
     public int getOrder() {
         return -100; // 优先级高，早执行
     }
+
+    /**
+     * 匿名路径匹配器及其来源列表，来源列表被替换时重新编译
+     */
+    private static class CompiledPaths {
+        private final List<String> patterns;
+        private final PathPatternMatcher matcher;
+
+        CompiledPaths(List<String> patterns, PathPatternMatcher matcher) {
+            this.patterns = patterns;
+            this.matcher = matcher;
+        }
+    }
 }
\ No newline at end of file
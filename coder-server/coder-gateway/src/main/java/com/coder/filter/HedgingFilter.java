@@ -0,0 +1,477 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.config.RouteHttpClients;
+import com.coder.loadbalancer.InstanceStats;
+import com.coder.loadbalancer.InstanceStatsRegistry;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.utils.RouteRuleUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import javax.annotation.Resource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 对冲请求过滤器
+ *
+ * 对gateway.hedging.rules匹配的只读GET请求（如/coder/user/get/**），在负载均衡选定实例后由本过滤器转发：
+ * 首次请求超过规则最近耗时的百分位（percentile）仍未响应时，向另一个实例发出相同请求，
+ * 采用先到的响应并取消另一个请求，单个慢实例不再决定尾延迟。
+ *
+ * 转发使用与路由相同的HttpClient（HTTP/1.1或h2c，见RouteHttpClients）。
+ *
+ * 首选实例和对冲实例的在途数、耗时和失败由本过滤器按每次转发分别记录（落败被取消的请求不计失败），
+ * 首选实例的耗时每个请求都计入百分位样本。Content-Length超过max-body-bytes或未知的响应不缓存响应体，
+ * 在响应头到达时即采用并流式转发。
+ *
+ * 对冲请求受预算限制：每个请求积累budget-percent%个对冲额度，额度不足时不发出对冲请求，
+ * 负载最多放大budget-percent%。备选实例按InstanceStats代价选择，跳过摘除期内的实例。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private RouteHttpClients routeHttpClients;
+
+    @Resource
+    private HttpClientProperties httpClientProperties;
+
+    @Resource
+    private LoadBalancerClientFactory loadBalancerClientFactory;
+
+    @Resource
+    private InstanceStatsRegistry instanceStatsRegistry;
+
+    @Resource
+    private ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    /**
+     * 各规则的耗时样本和对冲预算，键为规则ID
+     */
+    private final ConcurrentMap<String, HedgeState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Nacos配置刷新后按新规则重新统计
+     */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange() {
+        states.clear();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.Hedging config = gatewayConfig.getHedging();
+        ServerHttpRequest request = exchange.getRequest();
+        if (!Boolean.TRUE.equals(config.getEnabled()) || request.getMethod() != HttpMethod.GET
+                || request.getHeaders().getContentLength() > 0 || ServerWebExchangeUtils.isAlreadyRouted(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (requestUrl == null || lbResponse == null || !lbResponse.hasServer()
+                || !("http".equals(requestUrl.getScheme()) || "https".equals(requestUrl.getScheme()))) {
+            return chain.filter(exchange);
+        }
+
+        GatewayConfig.HedgingRule rule = RouteRuleUtils.match(config.getRules(), exchange);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        HedgeState state = states.computeIfAbsent(rule.getId(), id -> new HedgeState(rule));
+        state.onRequest(rule);
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        // 两个实例的统计由本过滤器按每次转发记录，生命周期回调不再记录整个交换的耗时
+        instanceStatsRegistry.handOff(lbResponse);
+
+        List<HttpHeadersFilter> headersFilters = headersFiltersProvider.getIfAvailable();
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters, exchange);
+        headers.remove(HttpHeaders.HOST);
+        ServiceInstance primary = lbResponse.getServer();
+        long maxBodyBytes = rule.getMaxBodyBytes();
+
+        // 首选实例的在途计数已由负载均衡生命周期回调增加
+        Attempt primaryAttempt = new Attempt(primary);
+        AtomicReference<Attempt> hedgeAttempt = new AtomicReference<>();
+        AtomicReference<Throwable> primaryError = new AtomicReference<>();
+
+        // 每个请求都记录首选实例的耗时；被对冲请求抢先时记录取消时的耗时（实际耗时的下限）
+        Mono<UpstreamResponse> first = send(primaryAttempt, requestUrl, headers, headersFilters, exchange, maxBodyBytes)
+                .doOnNext(response -> state.record(primaryAttempt.elapsed()))
+                .doOnCancel(() -> state.record(primaryAttempt.elapsed()))
+                .doOnError(primaryError::set);
+        Mono<UpstreamResponse> hedged = Mono.delay(Duration.ofNanos(state.delayNanos(rule)))
+                .flatMap(tick -> hedge(exchange, state, primary, hedgeAttempt, requestUrl, headers, headersFilters,
+                        maxBodyBytes));
+
+        Mono<UpstreamResponse> winner = Mono.firstWithValue(first, hedged)
+                .onErrorMap(NoSuchElementException.class, e -> primaryError.get() != null ? primaryError.get() : e);
+        Duration responseTimeout = getResponseTimeout(exchange);
+        if (responseTimeout != null) {
+            // 超时在取消两个请求之前记为失败
+            winner = winner.timeout(Mono.delay(responseTimeout).doOnNext(tick -> {
+                        primaryAttempt.complete(true);
+                        Attempt hedge = hedgeAttempt.get();
+                        if (hedge != null) {
+                            hedge.complete(true);
+                        }
+                    }))
+                    .onErrorMap(TimeoutException.class,
+                            e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e));
+        }
+
+        return winner.flatMap(response -> {
+            Attempt hedge = hedgeAttempt.get();
+            if (response.attempt == primaryAttempt) {
+                if (hedge != null) {
+                    hedge.lose();
+                }
+            } else {
+                gatewayMetrics.recordHedge(exchange, "won");
+                primaryAttempt.lose();
+            }
+            return write(exchange, response);
+        });
+    }
+
+    /**
+     * 预算充足且有备选实例时发出对冲请求，否则不参与竞争
+     */
+    private Mono<UpstreamResponse> hedge(ServerWebExchange exchange, HedgeState state, ServiceInstance primary,
+                                         AtomicReference<Attempt> hedgeAttempt, URI requestUrl, HttpHeaders headers,
+                                         List<HttpHeadersFilter> headersFilters, long maxBodyBytes) {
+        ServiceInstanceListSupplier supplier = loadBalancerClientFactory.getInstance(primary.getServiceId(),
+                ServiceInstanceListSupplier.class);
+        if (supplier == null) {
+            return Mono.empty();
+        }
+        return supplier.get().next()
+                .flatMap(instances -> Mono.justOrEmpty(selectAlternative(instances, primary)))
+                .filter(instance -> {
+                    if (state.tryAcquire()) {
+                        return true;
+                    }
+                    gatewayMetrics.recordHedge(exchange, "no_budget");
+                    return false;
+                })
+                .flatMap(instance -> {
+                    URI hedgeUrl = UriComponentsBuilder.fromUri(requestUrl)
+                            .scheme(instance.isSecure() ? "https" : "http")
+                            .host(instance.getHost())
+                            .port(instance.getPort())
+                            .build(true)
+                            .toUri();
+                    log.debug("发出对冲请求: {} -> {}", requestUrl, hedgeUrl);
+                    gatewayMetrics.recordHedge(exchange, "sent");
+                    instanceStatsRegistry.get(instance).onStart();
+                    Attempt attempt = new Attempt(instance);
+                    hedgeAttempt.set(attempt);
+                    return send(attempt, hedgeUrl, headers, headersFilters, exchange, maxBodyBytes);
+                });
+    }
+
+    /**
+     * 选择代价最小的其他实例，跳过摘除期内的实例
+     */
+    private ServiceInstance selectAlternative(List<ServiceInstance> instances, ServiceInstance primary) {
+        long now = System.nanoTime();
+        ServiceInstance best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (ServiceInstance instance : instances) {
+            if (instance.getHost().equals(primary.getHost()) && instance.getPort() == primary.getPort()) {
+                continue;
+            }
+            InstanceStats stats = instanceStatsRegistry.get(instance);
+            if (stats.isEjected(now)) {
+                continue;
+            }
+            double cost = stats.cost();
+            if (cost < bestCost) {
+                best = instance;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 转发一次请求
+     *
+     * Content-Length不超过max-body-bytes的响应缓存完整响应体后参与竞争；
+     * 超过或长度未知的响应在响应头到达时即参与竞争，响应体由胜者流式写出，不再缓存。
+     */
+    private Mono<UpstreamResponse> send(Attempt attempt, URI url, HttpHeaders headers,
+                                        List<HttpHeadersFilter> headersFilters, ServerWebExchange exchange,
+                                        long maxBodyBytes) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return routeHttpClients.get(route)
+                .headers(nettyHeaders -> headers.forEach(nettyHeaders::set))
+                .get()
+                .uri(url)
+                .responseConnection((response, connection) -> {
+                    HttpHeaders upstreamHeaders = new HttpHeaders();
+                    response.responseHeaders().forEach(entry -> upstreamHeaders.add(entry.getKey(), entry.getValue()));
+                    HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters, upstreamHeaders,
+                            exchange, HttpHeadersFilter.Type.RESPONSE);
+                    HttpStatus resolved = HttpStatus.resolve(response.status().code());
+                    HttpStatus status = resolved != null ? resolved : HttpStatus.BAD_GATEWAY;
+                    boolean failed = status.is5xxServerError();
+
+                    long contentLength = upstreamHeaders.getContentLength();
+                    if (contentLength >= 0 && contentLength <= maxBodyBytes) {
+                        return connection.inbound().receive().aggregate().asByteArray()
+                                .defaultIfEmpty(EMPTY_BODY)
+                                .map(bytes -> {
+                                    attempt.complete(failed);
+                                    return new UpstreamResponse(attempt, status, filtered, bytes, null, failed);
+                                });
+                    }
+                    attempt.hold(connection);
+                    return Mono.just(new UpstreamResponse(attempt, status, filtered, null, connection, failed));
+                })
+                .single()
+                .doOnError(e -> attempt.complete(true))
+                .doOnCancel(attempt::lose);
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, UpstreamResponse upstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstream.status);
+        response.getHeaders().putAll(upstream.headers);
+        if (upstream.body != null) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+            response.getHeaders().setContentLength(upstream.body.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(upstream.body)));
+        }
+
+        if (response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        Attempt attempt = upstream.attempt;
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        return response.writeWith(upstream.connection.inbound().receive().asByteArray()
+                .map(bytes -> bufferFactory.wrap(bytes))
+                .doOnComplete(() -> attempt.complete(upstream.failed))
+                .doOnError(e -> attempt.complete(true))
+                .doOnCancel(attempt::lose));
+    }
+
+    /**
+     * 与NettyRoutingFilter一致：优先使用路由元数据中的response-timeout，其次使用全局配置
+     */
+    private Duration getResponseTimeout(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Object timeout = route != null ? route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR) : null;
+        if (timeout instanceof Number) {
+            long millis = ((Number) timeout).longValue();
+            return millis >= 0 ? Duration.ofMillis(millis) : null;
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1; // 负载均衡选定实例之后、NettyRoutingFilter之前
+    }
+
+    /**
+     * 一次转发：由本过滤器记录该实例的请求完成，只记录一次
+     */
+    private class Attempt {
+
+        private final ServiceInstance instance;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        /**
+         * 流式转发时持有的下游连接，落败时释放
+         */
+        private volatile Connection connection;
+        private volatile boolean lost;
+
+        Attempt(ServiceInstance instance) {
+            this.instance = instance;
+        }
+
+        long elapsed() {
+            return System.nanoTime() - startNanos;
+        }
+
+        void complete(boolean failed) {
+            if (completed.compareAndSet(false, true)) {
+                instanceStatsRegistry.complete(instance, elapsed(), failed);
+            }
+        }
+
+        void hold(Connection connection) {
+            this.connection = connection;
+            if (lost) {
+                connection.dispose();
+            }
+        }
+
+        /**
+         * 落败或被取消：释放流式连接，按未失败记录完成
+         */
+        void lose() {
+            lost = true;
+            Connection held = connection;
+            if (held != null) {
+                held.dispose();
+            }
+            complete(false);
+        }
+    }
+
+    /**
+     * 下游响应：已缓存响应体（body）或待流式读取的连接（connection）二者之一
+     */
+    private static class UpstreamResponse {
+
+        private final Attempt attempt;
+        private final HttpStatus status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final Connection connection;
+        private final boolean failed;
+
+        UpstreamResponse(Attempt attempt, HttpStatus status, HttpHeaders headers, byte[] body, Connection connection,
+                         boolean failed) {
+            this.attempt = attempt;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.connection = connection;
+            this.failed = failed;
+        }
+    }
+
+    /**
+     * 单条规则的耗时样本和对冲预算
+     */
+    private static class HedgeState {
+
+        private static final int WINDOW_SIZE = 1024;
+        private static final int RECOMPUTE_INTERVAL = 64;
+
+        /**
+         * 一次对冲消耗的额度，每个请求积累budget-percent * 10个额度
+         */
+        private static final long HEDGE_COST = 1000L;
+
+        /**
+         * 额度上限，即允许的突发对冲请求数
+         */
+        private static final long MAX_CREDITS = 10 * HEDGE_COST;
+
+        private final int percentile;
+        private final int minSamples;
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int next;
+        private int count;
+        private int sinceRecompute;
+
+        /**
+         * 最近耗时的百分位，样本不足时为-1
+         */
+        private volatile long percentileNanos = -1L;
+
+        private final AtomicLong credits = new AtomicLong();
+
+        HedgeState(GatewayConfig.HedgingRule rule) {
+            this.percentile = rule.getPercentile();
+            this.minSamples = rule.getMinSamples();
+        }
+
+        void onRequest(GatewayConfig.HedgingRule rule) {
+            long earned = rule.getBudgetPercent() * HEDGE_COST / 100;
+            credits.updateAndGet(current -> Math.min(MAX_CREDITS, current + earned));
+        }
+
+        boolean tryAcquire() {
+            long current;
+            do {
+                current = credits.get();
+                if (current < HEDGE_COST) {
+                    return false;
+                }
+            } while (!credits.compareAndSet(current, current - HEDGE_COST));
+            return true;
+        }
+
+        long delayNanos(GatewayConfig.HedgingRule rule) {
+            long min = TimeUnit.MILLISECONDS.toNanos(rule.getMinDelayMillis());
+            long max = TimeUnit.MILLISECONDS.toNanos(rule.getMaxDelayMillis());
+            long current = percentileNanos;
+            return current < 0 ? max : Math.max(min, Math.min(max, current));
+        }
+
+        /**
+         * 记录一次耗时，每RECOMPUTE_INTERVAL个样本重新计算一次百分位
+         */
+        synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+            if (++sinceRecompute < RECOMPUTE_INTERVAL || count < minSamples) {
+                return;
+            }
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.min(count - 1, count * percentile / 100)];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.coder.filter;
+
+import com.coder.constant.Constants;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 内部调用请求头过滤器
+ *
+ * 外部请求不能冒充内部服务调用：移除客户端传入的X-Internal-Call和X-Internal-Signature，
+ * 经网关转发的请求在下游一律按用户请求认证。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class InternalHeaderFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (!headers.containsKey(Constants.Http.X_INTERNAL_CALL) && !headers.containsKey(Constants.Http.X_INTERNAL_SIGNATURE)) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest strippedRequest = exchange.getRequest().mutate()
+                .headers(mutable -> {
+                    mutable.remove(Constants.Http.X_INTERNAL_CALL);
+                    mutable.remove(Constants.Http.X_INTERNAL_SIGNATURE);
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(strippedRequest).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return -310; // 最先执行，后续过滤器和下游服务都看不到客户端传入的内部调用标识
+    }
+}
@@ -0,0 +1,130 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.dto.RateLimitResult;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.result.ResultCode;
+import com.coder.service.RateLimitService;
+import com.coder.utils.ErrorResponseTemplate;
+import com.coder.utils.ErrorResponseUtils;
+import com.coder.utils.RouteRuleUtils;
+import com.coder.utils.StrUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关限流过滤器
+ *
+ * 在认证之后执行，按配置的规则对用户、客户端IP和规则整体三个维度做令牌桶限流，
+ * 超出配额的请求直接返回429，不再转发到下游服务。规则来自gateway.rate-limit，
+ * 支持通过Nacos动态刷新。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private RateLimitService rateLimitService;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    private static final ErrorResponseTemplate TOO_MANY_REQUESTS = ErrorResponseTemplate.of(
+            ResultCode.TOO_MANY_REQUESTS.getCode(), ResultCode.TOO_MANY_REQUESTS.getMessage());
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.RateLimit config = gatewayConfig.getRateLimit();
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return chain.filter(exchange);
+        }
+
+        GatewayConfig.RateLimitRule rule = RouteRuleUtils.match(config.getRules(), exchange);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        Long userId = exchange.getAttribute(GatewayJwtFilter.USER_ID_ATTRIBUTE);
+        String clientIp = resolveClientIp(exchange.getRequest(), config);
+        return rateLimitService.tryAcquire(rule, userId, clientIp)
+                .flatMap(result -> {
+                    if (result.isAllowed()) {
+                        return chain.filter(exchange);
+                    }
+                    log.warn("请求被限流: rule={}, userId={}, ip={}, path={}",
+                            rule.getId(), userId, clientIp, exchange.getRequest().getURI().getPath());
+                    gatewayMetrics.recordRejected(exchange, GatewayMetrics.REJECT_RATE_LIMIT);
+                    return handleTooManyRequests(exchange, result);
+                });
+    }
+
+    private String resolveClientIp(ServerHttpRequest request, GatewayConfig.RateLimit config) {
+        if (Boolean.TRUE.equals(config.getTrustForwardedFor())) {
+            String forwardedIp = resolveForwardedIp(request.getHeaders().get("X-Forwarded-For"), config.getTrustedProxies());
+            if (forwardedIp != null) {
+                return forwardedIp;
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+
+    /**
+     * 从X-Forwarded-For中取可信代理记录的客户端IP
+     *
+     * 每个代理把它看到的对端地址追加到末尾，左侧的条目由客户端任意填写，不可信。
+     * 网关前有N个可信代理时，从右往左第N个条目是最外层可信代理看到的客户端地址；
+     * 条目数不足N时说明请求经过的代理更少，取最左侧条目。
+     */
+    private String resolveForwardedIp(List<String> headerValues, int trustedProxies) {
+        if (headerValues == null || headerValues.isEmpty() || trustedProxies <= 0) {
+            return null;
+        }
+        List<String> entries = new ArrayList<>();
+        for (String value : headerValues) {
+            for (String entry : value.split(",")) {
+                if (StrUtils.isNotBlank(entry)) {
+                    entries.add(entry.trim());
+                }
+            }
+        }
+        if (entries.isEmpty()) {
+            return null;
+        }
+        return entries.get(Math.max(0, entries.size() - trustedProxies));
+    }
+
+    private Mono<Void> handleTooManyRequests(ServerWebExchange exchange, RateLimitResult result) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(result.getRetryAfterSeconds()));
+        return ErrorResponseUtils.write(response, HttpStatus.TOO_MANY_REQUESTS.value(), TOO_MANY_REQUESTS);
+    }
+
+    @Override
+    public int getOrder() {
+        return -90; // 在GatewayJwtFilter之后执行，可以按用户限流
+    }
+}
@@ -0,0 +1,162 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.dto.CoalescedResponse;
+import com.coder.utils.ResultBodyUtils;
+import com.coder.utils.RouteRuleUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import javax.annotation.Resource;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 请求合并过滤器
+ *
+ * 对gateway.request-coalescing中配置的GET接口，同一键的请求在途时，后到的相同请求不再转发，
+ * 而是等待在途请求的响应并共享其结果。
+ *     合并键：规则ID + 用户ID（shared规则为*） + 路径 + 查询参数 + Accept-Encoding
+ *     只共享HTTP 200、Result.code为成功且不含Set-Cookie的响应；在途请求的响应不可共享、失败或等待超过max-wait-millis时，
+ *     跟随请求自行转发，合并只会减少下游请求，不会改变结果
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    /**
+     * 在途请求，键为合并键，值为在途请求响应的发布者
+     */
+    private final ConcurrentMap<String, Sinks.One<CoalescedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.RequestCoalescing config = gatewayConfig.getRequestCoalescing();
+        ServerHttpRequest request = exchange.getRequest();
+        if (!Boolean.TRUE.equals(config.getEnabled()) || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        GatewayConfig.CoalescingRule rule = RouteRuleUtils.match(config.getRules(), exchange);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        boolean shared = Boolean.TRUE.equals(rule.getShared());
+        Long userId = exchange.getAttribute(GatewayJwtFilter.USER_ID_ATTRIBUTE);
+        if (!shared && userId == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = buildKey(rule, shared ? "*" : String.valueOf(userId), request);
+        Sinks.One<CoalescedResponse> sink = Sinks.one();
+        Sinks.One<CoalescedResponse> leader = inFlight.putIfAbsent(key, sink);
+        if (leader != null) {
+            return follow(exchange, chain, leader, config.getMaxWaitMillis());
+        }
+        return lead(exchange, chain, key, sink, config.getMaxBodySize());
+    }
+
+    /**
+     * 作为在途请求转发，并把可共享的响应发布给跟随请求
+     */
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                            Sinks.One<CoalescedResponse> sink, int maxBodySize) {
+        ServerHttpResponse capturingResponse = new CapturingResponseDecorator(exchange.getResponse(), maxBodySize,
+                upstream -> upstream.getStatusCode() == HttpStatus.OK
+                        && !upstream.getHeaders().containsKey(HttpHeaders.SET_COOKIE),
+                (upstream, body) -> {
+                    // 业务失败同样是HTTP 200，只共享成功的Result，失败时跟随请求自行转发
+                    if (!ResultBodyUtils.isSuccess(body)) {
+                        return;
+                    }
+                    inFlight.remove(key, sink);
+                    sink.tryEmitValue(new CoalescedResponse(upstream.getStatusCode(),
+                            copyHeaders(upstream.getHeaders()), body));
+                });
+
+        return chain.filter(exchange.mutate().response(capturingResponse).build())
+                .doFinally(signal -> {
+                    // 未发布响应（不可共享、失败或取消）时通知跟随请求自行转发
+                    inFlight.remove(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    /**
+     * 等待在途请求的响应，拿不到可共享的响应时自行转发
+     */
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain,
+                              Sinks.One<CoalescedResponse> leader, long maxWaitMillis) {
+        return leader.asMono()
+                .timeout(Duration.ofMillis(maxWaitMillis))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorReturn(Optional.empty())
+                .flatMap(response -> {
+                    if (!response.isPresent()) {
+                        return chain.filter(exchange);
+                    }
+                    log.debug("合并请求，共享在途响应: {}", exchange.getRequest().getURI().getPath());
+                    return writeShared(exchange, response.get());
+                });
+    }
+
+    private Mono<Void> writeShared(ServerWebExchange exchange, CoalescedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.getStatus());
+        response.getHeaders().putAll(shared.getHeaders());
+        response.getHeaders().setContentLength(shared.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.getBody())));
+    }
+
+    /**
+     * 复制可以共享的响应头，逐跳头和长度由各自的响应重新生成
+     */
+    private HttpHeaders copyHeaders(HttpHeaders source) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(source);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private String buildKey(GatewayConfig.CoalescingRule rule, String owner, ServerHttpRequest request) {
+        URI uri = request.getURI();
+        StringBuilder key = new StringBuilder(rule.getId()).append(':').append(owner).append(':').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null) {
+            key.append('#').append(acceptEncoding);
+        }
+        return key.toString();
+    }
+
+    @Override
+    public int getOrder() {
+        return -70; // 在响应缓存之后执行，缓存未命中的并发请求在此合并
+    }
+}
@@ -0,0 +1,208 @@
+package com.coder.filter;
+
+import com.coder.cache.ResponseCache;
+import com.coder.config.GatewayConfig;
+import com.coder.dto.CachedResponse;
+import com.coder.utils.ResultBodyUtils;
+import com.coder.utils.RouteRuleUtils;
+import com.coder.utils.StrUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网关响应缓存过滤器
+ *
+ * 对gateway.response-cache中配置的GET接口缓存下游响应，命中时直接由网关返回，不再转发。
+ *     缓存键：规则ID + 用户ID（shared规则为*） + 路径 + 查询参数
+ *     Cache-Control：请求带no-cache时跳过缓存；下游响应为no-store/no-cache、共享规则下为private时不缓存，
+ *     max-age比配置的ttl-seconds更短时以max-age为准
+ *     只缓存HTTP 200且Result.code为成功的响应，业务失败（HTTP 200加错误code）不缓存
+ *     ETag：沿用下游的ETag，没有时按响应体计算，命中时支持If-None-Match返回304（弱比较，压缩后的W/形式同样匹配）
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.ResponseCache config = gatewayConfig.getResponseCache();
+        ServerHttpRequest request = exchange.getRequest();
+        if (!Boolean.TRUE.equals(config.getEnabled()) || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        GatewayConfig.ResponseCacheRule rule = RouteRuleUtils.match(config.getRules(), exchange);
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        boolean shared = Boolean.TRUE.equals(rule.getShared());
+        Long userId = exchange.getAttribute(GatewayJwtFilter.USER_ID_ATTRIBUTE);
+        if (!shared && userId == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = buildKey(rule, shared ? "*" : String.valueOf(userId), request.getURI());
+        if (!isNoCacheRequest(request)) {
+            CachedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+        }
+
+        // 去掉Accept-Encoding，保证缓存的是未压缩的响应体，可以返回给任意客户端
+        long generation = responseCache.generation();
+        ServerHttpRequest forwardRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+
+        AtomicLong ttlMillis = new AtomicLong();
+        ServerHttpResponse cachingResponse = new CapturingResponseDecorator(response, config.getMaxBodySize(),
+                upstream -> {
+                    ttlMillis.set(resolveTtlMillis(rule, shared, upstream.getStatusCode(), upstream.getHeaders(),
+                            config.getMaxBodySize()));
+                    return ttlMillis.get() > 0;
+                },
+                (upstream, body) -> {
+                    // 业务失败同样是HTTP 200，只缓存成功的Result，避免共享规则下把一个用户的失败返回给所有用户
+                    if (!ResultBodyUtils.isSuccess(body)) {
+                        return;
+                    }
+                    HttpHeaders headers = upstream.getHeaders();
+                    String etag = StrUtils.isNotBlank(headers.getETag())
+                            ? headers.getETag()
+                            : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+                    String contentType = headers.getContentType() != null ? headers.getContentType().toString() : null;
+                    responseCache.put(key, new CachedResponse(contentType, headers.getCacheControl(), etag, body,
+                            System.currentTimeMillis() + ttlMillis.get()), generation);
+                });
+
+        return chain.filter(exchange.mutate().request(forwardRequest).response(cachingResponse).build());
+    }
+
+    private String buildKey(GatewayConfig.ResponseCacheRule rule, String owner, URI uri) {
+        StringBuilder key = new StringBuilder(rule.getId()).append(':').append(owner).append(':').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        return key.toString();
+    }
+
+    private boolean isNoCacheRequest(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        String pragma = request.getHeaders().getPragma();
+        return (cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store")))
+                || (pragma != null && pragma.contains("no-cache"));
+    }
+
+    /**
+     * 根据下游响应计算缓存时间，返回0表示不缓存
+     */
+    private long resolveTtlMillis(GatewayConfig.ResponseCacheRule rule, boolean shared, HttpStatus status,
+                                  HttpHeaders headers, int maxBodySize) {
+        if (status != HttpStatus.OK || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.getContentLength() > maxBodySize) {
+            return 0L;
+        }
+        for (String vary : headers.getVary()) {
+            if (!HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(vary)) {
+                return 0L;
+            }
+        }
+
+        long ttlMillis = TimeUnit.SECONDS.toMillis(rule.getTtlSeconds());
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return ttlMillis;
+        }
+        for (String directive : cacheControl.split(",")) {
+            directive = directive.trim().toLowerCase();
+            if (directive.equals("no-store") || directive.equals("no-cache") || (shared && directive.equals("private"))) {
+                return 0L;
+            }
+            if (directive.startsWith("max-age=")) {
+                try {
+                    ttlMillis = Math.min(ttlMillis, TimeUnit.SECONDS.toMillis(Long.parseLong(directive.substring(8))));
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }
+        }
+        return ttlMillis;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.getEtag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+        if (cached.getCacheControl() != null) {
+            headers.setCacheControl(cached.getCacheControl());
+        }
+
+        if (matchesEtag(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.getEtag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.getContentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, cached.getContentType());
+        }
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    /**
+     * If-None-Match使用弱比较：压缩后的响应带弱ETag（W/），强、弱两种形式都视为匹配
+     */
+    private boolean matchesEtag(List<String> ifNoneMatch, String etag) {
+        String opaqueTag = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || stripWeakPrefix(candidate).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    @Override
+    public int getOrder() {
+        return -80; // 在认证和限流之后执行
+    }
+}
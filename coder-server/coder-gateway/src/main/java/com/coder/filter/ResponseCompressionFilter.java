@@ -0,0 +1,253 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.utils.StrUtils;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 响应压缩过滤器
+ *
+ * 对JSON等文本响应按Accept-Encoding做流式gzip压缩，下游响应体逐块压缩后写出，不在网关聚合完整响应体。
+ * 满足以下条件才压缩：
+ *     全局和路由均开启，非HEAD请求，状态码不是204/304
+ *     下游未设置Content-Encoding（下游已压缩的gzip/br响应原样透传），Cache-Control不含no-transform
+ *     Content-Type在gateway.compression.mime-types中，Content-Length未知或不小于min-response-size
+ *     客户端Accept-Encoding接受gzip（q>0）
+ * 可压缩类型的响应统一追加Vary: Accept-Encoding，压缩级别可按路由覆盖。
+ * 压缩后的响应把强ETag改为弱ETag（W/），与未压缩的表示区分。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+
+    private static final String GZIP = "gzip";
+    private static final String NO_TRANSFORM = "no-transform";
+    private static final String WEAK_PREFIX = "W/";
+    private static final int BUFFER_SIZE = 8192;
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.Compression config = gatewayConfig.getCompression();
+        if (!Boolean.TRUE.equals(config.getEnabled()) || HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        GatewayConfig.CompressionRoute routeConfig = route != null ? config.getRoutes().get(route.getId()) : null;
+        if (routeConfig != null && Boolean.FALSE.equals(routeConfig.getEnabled())) {
+            return chain.filter(exchange);
+        }
+        int level = routeConfig != null && routeConfig.getLevel() != null ? routeConfig.getLevel() : config.getLevel();
+        boolean acceptGzip = qualityOf(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING), GZIP) > 0;
+
+        return chain.filter(exchange.mutate()
+                .response(new CompressingResponse(exchange.getResponse(), config, acceptGzip, level))
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        return -150; // 在访问日志之后（统计压缩后的字节数），在响应缓存、请求合并之前（缓存和共享未压缩的响应体）
+    }
+
+    /**
+     * 解析Accept-Encoding中指定编码的q值，未声明时按通配符*处理
+     */
+    private static double qualityOf(String acceptEncoding, String coding) {
+        if (StrUtils.isBlank(acceptEncoding)) {
+            return 0;
+        }
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim();
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(coding)) {
+                return quality;
+            }
+            if ("*".equals(name)) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+    /**
+     * 写出响应体时根据下游响应头决定是否压缩
+     */
+    private static class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final GatewayConfig.Compression config;
+        private final boolean acceptGzip;
+        private final int level;
+
+        CompressingResponse(ServerHttpResponse delegate, GatewayConfig.Compression config, boolean acceptGzip,
+                            int level) {
+            super(delegate);
+            this.config = config;
+            this.acceptGzip = acceptGzip;
+            this.level = level;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!shouldCompress()) {
+                return super.writeWith(body);
+            }
+
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            weakenEtag(headers);
+            DataBufferFactory bufferFactory = bufferFactory();
+            Flux<DataBuffer> compressed = Flux.using(() -> new GzipEncoder(level),
+                    encoder -> Flux.from(body)
+                            .<DataBuffer>handle((buffer, sink) -> {
+                                byte[] output;
+                                try {
+                                    output = encoder.encode(buffer);
+                                } finally {
+                                    DataBufferUtils.release(buffer);
+                                }
+                                if (output.length > 0) {
+                                    sink.next(bufferFactory.wrap(output));
+                                }
+                            })
+                            .concatWith(Mono.fromCallable(() -> bufferFactory.wrap(encoder.finish()))),
+                    GzipEncoder::close);
+            return super.writeWith(compressed);
+        }
+
+        /**
+         * 强ETag是按未压缩的响应体计算的，压缩后的表示不能共用同一个强校验器，改为弱ETag
+         */
+        private void weakenEtag(HttpHeaders headers) {
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith(WEAK_PREFIX)) {
+                headers.setETag(WEAK_PREFIX + etag);
+            }
+        }
+
+        private boolean shouldCompress() {
+            Integer status = getRawStatusCode();
+            if (status != null && (status == 204 || status == 304)) {
+                return false;
+            }
+            HttpHeaders headers = getHeaders();
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || !isCompressible(headers.getContentType())) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && cacheControl.toLowerCase().contains(NO_TRANSFORM)) {
+                return false;
+            }
+
+            // 是否压缩取决于Accept-Encoding，共享缓存需要区分
+            List<String> vary = headers.getVary();
+            if (!vary.contains("*") && vary.stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+
+            long contentLength = headers.getContentLength();
+            return acceptGzip && (contentLength < 0 || contentLength >= config.getMinResponseSize());
+        }
+
+        private boolean isCompressible(MediaType contentType) {
+            if (contentType == null) {
+                return false;
+            }
+            for (String mimeType : config.getMimeTypes()) {
+                if (MediaType.parseMediaType(mimeType).includes(contentType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 单个响应的流式gzip编码器，每写入一块返回当前已产生的压缩数据
+     */
+    private static class GzipEncoder {
+
+        private final ByteArrayOutputStream sink = new ByteArrayOutputStream(BUFFER_SIZE);
+        private final GZIPOutputStream gzip;
+
+        GzipEncoder(int level) throws IOException {
+            this.gzip = new GZIPOutputStream(sink, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        byte[] encode(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                gzip.write(bytes);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        byte[] finish() throws IOException {
+            gzip.finish();
+            return drain();
+        }
+
+        void close() {
+            try {
+                gzip.close();
+            } catch (IOException ignored) {
+                // 内存流关闭不会失败，只需释放Deflater
+            }
+        }
+
+        private byte[] drain() {
+            byte[] output = sink.toByteArray();
+            sink.reset();
+            return output;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.utils.RouteRuleUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+import reactor.util.retry.Retry;
+
+import javax.annotation.Resource;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网关重试过滤器
+ *
+ * 只重试幂等方法（规则的methods）或携带Idempotency-Key请求头的请求，上传请求（UPLOAD_ATTRIBUTE）一律不重试。
+ * 只在响应尚未开始写出时，对连接失败、连接被提前关闭以及可选的响应超时重试，
+ * 每次重试重新经过熔断、负载均衡和路由过滤器，通常会落到另一个实例。
+ *
+ * 重试间隔指数增长并加入随机抖动，避免同一时刻失败的请求同时重发。
+ * 重试受预算限制：每个请求积累budget-percent%个重试额度，额度不足时不再重试，
+ * 每个网关实例的重试流量不超过自身请求数的budget-percent%，整个集群同样不超过该比例。
+ *
+ * 带请求体的请求先缓存请求体（不超过max-body-bytes）以便重发。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class RetryFilter implements GlobalFilter, Ordered {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    /**
+     * 各规则的重试预算，键为规则ID
+     */
+    private final ConcurrentMap<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Nacos配置刷新后按新规则重新计算预算
+     */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange() {
+        budgets.clear();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.Retry config = gatewayConfig.getRetry();
+        if (!Boolean.TRUE.equals(config.getEnabled()) || exchange.getAttribute(UploadPolicyFilter.UPLOAD_ATTRIBUTE) != null) {
+            return chain.filter(exchange);
+        }
+
+        GatewayConfig.RetryRule rule = RouteRuleUtils.match(config.getRules(), exchange);
+        ServerHttpRequest request = exchange.getRequest();
+        if (rule == null || !(rule.getMethods().contains(request.getMethodValue())
+                || request.getHeaders().containsKey(IDEMPOTENCY_KEY))) {
+            return chain.filter(exchange);
+        }
+
+        RetryBudget budget = budgets.computeIfAbsent(rule.getId(), id -> new RetryBudget());
+        budget.onRequest(rule);
+
+        HttpHeaders headers = request.getHeaders();
+        long contentLength = headers.getContentLength();
+        if (contentLength <= 0 && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+            return retry(exchange, chain, rule, budget);
+        }
+        if (contentLength < 0 || contentLength > rule.getMaxBodyBytes()) {
+            return chain.filter(exchange);
+        }
+        // 缓存请求体，每次重发从缓存读取
+        return ServerWebExchangeUtils.cacheRequestBody(exchange, cachedRequest ->
+                retry(exchange.mutate().request(cachedRequest).build(), chain, rule, budget));
+    }
+
+    private Mono<Void> retry(ServerWebExchange exchange, GatewayFilterChain chain,
+                             GatewayConfig.RetryRule rule, RetryBudget budget) {
+        AtomicInteger attempts = new AtomicInteger();
+        return Mono.defer(() -> {
+                    if (attempts.getAndIncrement() > 0) {
+                        // 清除已路由标记和上次响应写入的头，重新经过负载均衡和路由过滤器
+                        ServerWebExchangeUtils.reset(exchange);
+                    }
+                    return chain.filter(exchange);
+                })
+                .retryWhen(Retry.backoff(rule.getMaxRetries(), Duration.ofMillis(rule.getFirstBackoffMillis()))
+                        .maxBackoff(Duration.ofMillis(rule.getMaxBackoffMillis()))
+                        .jitter(0.5)
+                        .filter(e -> shouldRetry(e, exchange, rule, budget, attempts.get()))
+                        .doBeforeRetry(signal -> log.debug("重试请求: {} {}, 第{}次, 原因: {}",
+                                exchange.getRequest().getMethodValue(), exchange.getRequest().getURI().getPath(),
+                                signal.totalRetries() + 1, signal.failure().toString()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private boolean shouldRetry(Throwable error, ServerWebExchange exchange, GatewayConfig.RetryRule rule,
+                                RetryBudget budget, int attempts) {
+        if (attempts > rule.getMaxRetries() || exchange.getResponse().isCommitted() || !isRetryable(error, rule)) {
+            return false;
+        }
+        // 最后检查预算，只有确实要重试时才消耗额度
+        if (!budget.tryAcquire()) {
+            gatewayMetrics.recordRetry(exchange, "no_budget");
+            return false;
+        }
+        gatewayMetrics.recordRetry(exchange, "sent");
+        return true;
+    }
+
+    /**
+     * 连接失败和连接被提前关闭时请求未被处理或可安全重发；响应超时按规则决定
+     */
+    private boolean isRetryable(Throwable error, GatewayConfig.RetryRule rule) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            // ConnectException包括Netty的连接超时ConnectTimeoutException
+            if (e instanceof ConnectException || e instanceof PrematureCloseException) {
+                return true;
+            }
+            if (e instanceof ResponseStatusException
+                    && ((ResponseStatusException) e).getStatus() == HttpStatus.GATEWAY_TIMEOUT) {
+                return Boolean.TRUE.equals(rule.getRetryOnTimeout());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return -65; // 在熔断过滤器之前执行，每次重试都计入熔断统计，熔断后不再重试
+    }
+
+    /**
+     * 单条规则的重试预算
+     */
+    private static class RetryBudget {
+
+        /**
+         * 一次重试消耗的额度，每个请求积累budget-percent * 10个额度
+         */
+        private static final long RETRY_COST = 1000L;
+
+        /**
+         * 额度上限，即允许的突发重试数
+         */
+        private static final long MAX_CREDITS = 10 * RETRY_COST;
+
+        private final AtomicLong credits = new AtomicLong();
+
+        void onRequest(GatewayConfig.RetryRule rule) {
+            long earned = rule.getBudgetPercent() * RETRY_COST / 100;
+            credits.updateAndGet(current -> Math.min(MAX_CREDITS, current + earned));
+        }
+
+        boolean tryAcquire() {
+            long current;
+            do {
+                current = credits.get();
+                if (current < RETRY_COST) {
+                    return false;
+                }
+            } while (!credits.compareAndSet(current, current - RETRY_COST));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.coder.filter;
+
+import com.coder.config.RouteHttpClients;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * 按路由选择HttpClient的转发过滤器，替代默认的NettyRoutingFilter
+ * 配置了h2c的路由使用RouteHttpClients提供的客户端，其余路由行为不变
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public class RouteAwareNettyRoutingFilter extends NettyRoutingFilter {
+
+    private final HttpClient defaultHttpClient;
+    private final RouteHttpClients routeHttpClients;
+
+    public RouteAwareNettyRoutingFilter(HttpClient httpClient,
+                                        ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                        HttpClientProperties properties,
+                                        RouteHttpClients routeHttpClients) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.defaultHttpClient = httpClient;
+        this.routeHttpClients = routeHttpClients;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = routeHttpClients.get(route);
+        if (client == defaultHttpClient) {
+            // 默认客户端仍由父类处理路由元数据中的connect-timeout
+            return super.getHttpClient(route, exchange);
+        }
+        return client;
+    }
+}
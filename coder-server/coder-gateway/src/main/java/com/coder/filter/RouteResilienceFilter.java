@@ -0,0 +1,172 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.utils.ErrorResponseTemplate;
+import com.coder.utils.ErrorResponseUtils;
+import com.coder.warmup.GatewayWarmup;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路由隔离过滤器
+ *
+ * 按路由ID为gateway.resilience.routes中配置的路由提供：
+ *     舱壁：限制路由的并发请求数，某个服务变慢时只占满自己的配额，不会拖垮其他路由
+ *     熔断：按最近调用的失败率（连接异常、超时、5xx）和慢调用比例熔断，熔断期间快速失败；
+ *     等待期结束后自动进入半开状态，放行少量探测请求，成功则恢复，失败则继续熔断
+ *     降级：熔断或舱壁已满时返回配置的降级响应，未配置时返回503
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class RouteResilienceFilter implements GlobalFilter, Ordered {
+
+    private static final String RESILIENCE_PREFIX = "gateway.resilience.";
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * 各路由预先序列化的降级响应体，键为路由ID
+     */
+    private final ConcurrentMap<String, ErrorResponseTemplate> fallbackTemplates = new ConcurrentHashMap<>();
+
+    /**
+     * Nacos配置刷新且变更了gateway.resilience.*时按新配置重建熔断器、舱壁和降级响应体；
+     * 其他配置的刷新不重建，避免故障期间打开的熔断器被无关变更关闭
+     */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.toLowerCase().startsWith(RESILIENCE_PREFIX))) {
+            return;
+        }
+        circuitBreakers.clear();
+        bulkheads.clear();
+        fallbackTemplates.clear();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.Resilience config = gatewayConfig.getResilience();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        // 预热请求在转发前由WarmupResponseFilter直接应答，不计入熔断统计
+        if (!Boolean.TRUE.equals(config.getEnabled()) || route == null || GatewayWarmup.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        GatewayConfig.RouteResilience routeConfig = config.getRoutes().get(route.getId());
+        if (routeConfig == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(routeId, id -> createCircuitBreaker(id, routeConfig));
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("路由已熔断，快速失败: route={}", routeId);
+            gatewayMetrics.recordRejected(exchange, GatewayMetrics.REJECT_CIRCUIT_BREAKER);
+            return writeFallback(exchange, routeId, routeConfig, TimeUnit.MILLISECONDS.toSeconds(routeConfig.getWaitInOpenMillis()));
+        }
+
+        Bulkhead bulkhead = routeConfig.getMaxConcurrentCalls() == null ? null
+                : bulkheads.computeIfAbsent(routeId, id -> createBulkhead(id, routeConfig));
+        if (bulkhead != null && !bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            log.warn("路由并发已满，拒绝请求: route={}, maxConcurrentCalls={}", routeId, routeConfig.getMaxConcurrentCalls());
+            gatewayMetrics.recordRejected(exchange, GatewayMetrics.REJECT_BULKHEAD);
+            return writeFallback(exchange, routeId, routeConfig, 1L);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> {
+                    long duration = System.nanoTime() - start;
+                    HttpStatus status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        circuitBreaker.onError(duration, TimeUnit.NANOSECONDS,
+                                new IllegalStateException("下游返回" + status.value()));
+                    } else {
+                        circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+                    }
+                })
+                .doOnError(e -> circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e))
+                .doOnCancel(circuitBreaker::releasePermission)
+                .doFinally(signal -> {
+                    if (bulkhead != null) {
+                        bulkhead.onComplete();
+                    }
+                });
+    }
+
+    private CircuitBreaker createCircuitBreaker(String routeId, GatewayConfig.RouteResilience routeConfig) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(routeConfig.getFailureRateThreshold())
+                .slowCallDurationThreshold(Duration.ofMillis(routeConfig.getSlowCallMillis()))
+                .slowCallRateThreshold(routeConfig.getSlowCallRateThreshold())
+                .slidingWindowSize(routeConfig.getSlidingWindowSize())
+                .minimumNumberOfCalls(routeConfig.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(Duration.ofMillis(routeConfig.getWaitInOpenMillis()))
+                .permittedNumberOfCallsInHalfOpenState(routeConfig.getPermittedHalfOpenCalls())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+        CircuitBreaker circuitBreaker = CircuitBreaker.of(routeId, circuitBreakerConfig);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("路由熔断状态变更: route={}, transition={}", routeId, event.getStateTransition()));
+        return circuitBreaker;
+    }
+
+    /**
+     * 舱壁不等待，获取不到许可立即拒绝，避免阻塞事件循环线程
+     */
+    private Bulkhead createBulkhead(String routeId, GatewayConfig.RouteResilience routeConfig) {
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(routeConfig.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        return Bulkhead.of(routeId, bulkheadConfig);
+    }
+
+    private Mono<Void> writeFallback(ServerWebExchange exchange, String routeId,
+                                     GatewayConfig.RouteResilience routeConfig, long retryAfterSeconds) {
+        GatewayConfig.Fallback fallback = routeConfig.getFallback() != null ? routeConfig.getFallback() : new GatewayConfig.Fallback();
+        ErrorResponseTemplate template = fallbackTemplates.computeIfAbsent(routeId,
+                id -> ErrorResponseTemplate.of(fallback.getCode(), fallback.getMessage()));
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfterSeconds)));
+        return ErrorResponseUtils.write(response, fallback.getStatus(), template);
+    }
+
+    @Override
+    public int getOrder() {
+        return -60; // 在响应缓存和请求合并之后执行，命中缓存或被合并的请求不占用舱壁
+    }
+}
@@ -0,0 +1,116 @@
+package com.coder.filter;
+
+import com.coder.config.GatewayConfig;
+import com.coder.result.ResultCode;
+import com.coder.utils.ErrorResponseTemplate;
+import com.coder.utils.ErrorResponseUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上传路由过滤器
+ *
+ * 对gateway.upload.routes中配置的路由（如file-upload）执行上传策略：
+ *     请求体按块直接转发给下游，不缓存、不重放，网关内存占用与文件大小无关
+ *     声明了Content-Length时在读取请求体之前检查大小，超限直接返回413，
+ *     客户端使用Expect: 100-continue时不会开始发送请求体
+ *     未声明Content-Length的分块上传按已转发字节数计数，超限时中断转发
+ * 上传路由在路由元数据中配置独立的超时时间，并标记UPLOAD_ATTRIBUTE，后续过滤器不对其重试。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class UploadPolicyFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 上传请求标记，请求体只能读取一次，带有该标记的请求不能重试
+     */
+    public static final String UPLOAD_ATTRIBUTE = UploadPolicyFilter.class.getName() + ".upload";
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    private static final ErrorResponseTemplate PAYLOAD_TOO_LARGE = ErrorResponseTemplate.of(
+            ResultCode.PAYLOAD_TOO_LARGE.getCode(), ResultCode.PAYLOAD_TOO_LARGE.getMessage());
+    private static final ErrorResponseTemplate LENGTH_REQUIRED = ErrorResponseTemplate.of(
+            ResultCode.LENGTH_REQUIRED.getCode(), ResultCode.LENGTH_REQUIRED.getMessage());
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        GatewayConfig.Upload config = gatewayConfig.getUpload();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!Boolean.TRUE.equals(config.getEnabled()) || route == null) {
+            return chain.filter(exchange);
+        }
+        GatewayConfig.UploadPolicy policy = config.getRoutes().get(route.getId());
+        if (policy == null) {
+            return chain.filter(exchange);
+        }
+
+        exchange.getAttributes().put(UPLOAD_ATTRIBUTE, Boolean.TRUE);
+        ServerHttpRequest request = exchange.getRequest();
+        long contentLength = request.getHeaders().getContentLength();
+        long maxBytes = policy.getMaxBytes();
+
+        if (contentLength > maxBytes) {
+            log.warn("上传请求体过大: route={}, contentLength={}, maxBytes={}", route.getId(), contentLength, maxBytes);
+            return writeError(exchange, HttpStatus.PAYLOAD_TOO_LARGE, PAYLOAD_TOO_LARGE);
+        }
+        if (contentLength >= 0) {
+            return chain.filter(exchange);
+        }
+        if (Boolean.TRUE.equals(policy.getRequireContentLength())) {
+            return writeError(exchange, HttpStatus.LENGTH_REQUIRED, LENGTH_REQUIRED);
+        }
+
+        ServerHttpRequest limitedRequest = new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                AtomicLong received = new AtomicLong();
+                return super.getBody().handle((buffer, sink) -> {
+                    if (received.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                        DataBufferUtils.release(buffer);
+                        log.warn("分块上传超过大小限制，中断转发: route={}, maxBytes={}", route.getId(), maxBytes);
+                        sink.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                ResultCode.PAYLOAD_TOO_LARGE.getMessage()));
+                    } else {
+                        sink.next(buffer);
+                    }
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().request(limitedRequest).build());
+    }
+
+    private Mono<Void> writeError(ServerWebExchange exchange, HttpStatus status, ErrorResponseTemplate template) {
+        ServerHttpResponse response = exchange.getResponse();
+        // 未读取的请求体无法复用连接，通知客户端关闭
+        response.getHeaders().setConnection("close");
+        return ErrorResponseUtils.write(response, status.value(), template);
+    }
+
+    @Override
+    public int getOrder() {
+        return -95; // 在GatewayJwtFilter之后、限流之前执行，超限的上传不占用令牌
+    }
+}
@@ -0,0 +1,49 @@
+package com.coder.filter;
+
+import com.coder.warmup.GatewayWarmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+
+/**
+ * 预热请求识别过滤器
+ *
+ * X-Gateway-Warmup与本进程的预热令牌一致时设置GatewayWarmup.WARMUP_ATTRIBUTE，
+ * 无论是否一致都移除该请求头，不转发给下游，客户端传入的值不会生效。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class WarmupRequestFilter implements GlobalFilter, Ordered {
+
+    @Resource
+    private GatewayWarmup gatewayWarmup;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!request.getHeaders().containsKey(GatewayWarmup.WARMUP_HEADER)) {
+            return chain.filter(exchange);
+        }
+
+        if (gatewayWarmup.isWarmupToken(request.getHeaders().getFirst(GatewayWarmup.WARMUP_HEADER))) {
+            exchange.getAttributes().put(GatewayWarmup.WARMUP_ATTRIBUTE, Boolean.TRUE);
+        }
+        ServerHttpRequest strippedRequest = request.mutate()
+                .headers(headers -> headers.remove(GatewayWarmup.WARMUP_HEADER))
+                .build();
+        return chain.filter(exchange.mutate().request(strippedRequest).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return -300; // 在访问日志之前，后续过滤器都能识别预热请求
+    }
+}
@@ -0,0 +1,39 @@
+package com.coder.filter;
+
+import com.coder.warmup.GatewayWarmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 预热请求应答过滤器
+ *
+ * 预热请求经过认证、限流、缓存等过滤器后在此直接返回204，不转发给下游服务：
+ * 预热请求不携带用户身份，转发只会被下游拒绝，还会占用下游资源。
+ * 位于负载均衡之前，预热请求不会计入实例的延迟和并发统计。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class WarmupResponseFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!GatewayWarmup.isWarmup(exchange)) {
+            return chain.filter(exchange);
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.NO_CONTENT);
+        return exchange.getResponse().setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1; // 负载均衡和转发之前
+    }
+}
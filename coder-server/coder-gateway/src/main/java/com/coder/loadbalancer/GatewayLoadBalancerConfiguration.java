@@ -0,0 +1,30 @@
+package com.coder.loadbalancer;
+
+import com.coder.config.GatewayConfig;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 各服务负载均衡子容器的配置
+ * 由LoadBalancerConfig通过@LoadBalancerClients注册，不能被组件扫描，因此不加@Configuration
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public class GatewayLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                   LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                                   InstanceStatsRegistry instanceStatsRegistry,
+                                                                                   GatewayConfig gatewayConfig) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(serviceId,
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                instanceStatsRegistry, gatewayConfig);
+    }
+}
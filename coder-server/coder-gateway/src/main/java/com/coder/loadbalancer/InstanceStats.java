@@ -0,0 +1,96 @@
+package com.coder.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个服务实例的运行统计
+ *
+ * 延迟使用按时间衰减的峰值EWMA：新样本高于当前值时直接取新样本，慢实例能被立即发现；
+ * 低于当前值时按距上次更新的时间指数衰减，实例恢复后逐步回落。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public class InstanceStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double ewmaNanos;
+    private long lastUpdateNanos;
+    private boolean sampled;
+
+    private int consecutiveFailures;
+    private int ejectionCount;
+    private volatile long ejectedUntilNanos;
+
+    public void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 记录一次请求完成
+     *
+     * @param latencyNanos       请求耗时（纳秒）
+     * @param failed             是否失败（连接异常或5xx）
+     * @param decayNanos         EWMA衰减时间常数（纳秒）
+     * @param failureThreshold   触发摘除的连续失败次数
+     * @param baseEjectionNanos  首次摘除时长（纳秒），再次摘除时按次数倍增
+     * @param maxEjectionNanos   最长摘除时长（纳秒）
+     */
+    public synchronized void onComplete(long latencyNanos, boolean failed, long decayNanos,
+                                        int failureThreshold, long baseEjectionNanos, long maxEjectionNanos) {
+        inFlight.decrementAndGet();
+
+        long now = System.nanoTime();
+        if (!sampled || latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+            sampled = true;
+        } else {
+            double weight = Math.exp(-(double) Math.max(0L, now - lastUpdateNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastUpdateNanos = now;
+
+        if (!failed) {
+            consecutiveFailures = 0;
+            if (ejectedUntilNanos != 0 && now - ejectedUntilNanos > maxEjectionNanos) {
+                ejectionCount = 0;
+            }
+            return;
+        }
+        if (++consecutiveFailures >= failureThreshold) {
+            ejectionCount++;
+            long ejectionNanos = Math.min(maxEjectionNanos, baseEjectionNanos * ejectionCount);
+            ejectedUntilNanos = now + ejectionNanos;
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * 是否处于摘除期
+     */
+    public boolean isEjected(long now) {
+        return ejectedUntilNanos != 0 && now - ejectedUntilNanos < 0;
+    }
+
+    /**
+     * 选择代价：EWMA延迟 * (在途请求数 + 1)
+     * 尚无样本的实例没有在途请求时代价为0，优先探测；已有在途请求时代价最大，避免冷实例被集中打满
+     */
+    public synchronized double cost() {
+        int pending = inFlight.get();
+        if (!sampled) {
+            return pending == 0 ? 0 : Double.MAX_VALUE;
+        }
+        return ewmaNanos * (pending + 1);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized long getEwmaMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((long) ewmaNanos);
+    }
+}
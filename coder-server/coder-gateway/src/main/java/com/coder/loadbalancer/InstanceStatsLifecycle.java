@@ -0,0 +1,71 @@
+package com.coder.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 负载均衡生命周期回调，统计每个实例的在途请求数、延迟和失败
+ * 由ReactiveLoadBalancerClientFilter在选中实例、请求完成时调用
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class InstanceStatsLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    @Resource
+    private InstanceStatsRegistry instanceStatsRegistry;
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext) {
+            ((TimedRequestContext) request.getContext()).setRequestStartTime(System.nanoTime());
+        }
+        instanceStatsRegistry.get(lbResponse.getServer()).onStart();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        Request<Object> request = completionContext.getLoadBalancerRequest();
+        if (lbResponse == null || !lbResponse.hasServer() || !(request.getContext() instanceof TimedRequestContext)) {
+            return;
+        }
+        // 由过滤器按每次转发统计（如对冲请求），整个交换的耗时不代表该实例
+        if (instanceStatsRegistry.takeHandedOff(lbResponse)) {
+            return;
+        }
+        long startTime = ((TimedRequestContext) request.getContext()).getRequestStartTime();
+        if (startTime == 0) {
+            return;
+        }
+
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED;
+        Object clientResponse = completionContext.getClientResponse();
+        if (clientResponse instanceof ResponseData && ((ResponseData) clientResponse).getHttpStatus() != null) {
+            failed = failed || ((ResponseData) clientResponse).getHttpStatus().is5xxServerError();
+        }
+
+        instanceStatsRegistry.complete(lbResponse.getServer(), System.nanoTime() - startTime, failed);
+    }
+}
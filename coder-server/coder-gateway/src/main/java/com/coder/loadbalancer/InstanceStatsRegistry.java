@@ -0,0 +1,90 @@
+package com.coder.loadbalancer;
+
+import com.coder.config.GatewayConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务实例统计注册表，负载均衡器和生命周期回调共享
+ *
+ * 在线实例每次选择都会被访问；实例下线或重新部署后不再被访问，超过闲置时间后自动移除，
+ * 闲置时间不短于最长摘除时长的两倍，摘除期内的实例不会因过期而提前恢复。
+ *
+ * 由过滤器自行按每次转发统计的请求（如对冲请求）通过handOff登记负载均衡结果，
+ * InstanceStatsLifecycle完成时跳过这些请求，避免整个交换的耗时被记到首选实例上。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class InstanceStatsRegistry {
+
+    private static final long MIN_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    private Cache<String, InstanceStats> stats;
+
+    /**
+     * 已由过滤器接管统计的负载均衡结果，按对象标识比较，未被取走的条目随请求结束被回收
+     */
+    private final Cache<Response<ServiceInstance>, Boolean> handedOff = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    @PostConstruct
+    public void init() {
+        long idleMillis = Math.max(MIN_IDLE_MILLIS, 2 * gatewayConfig.getLoadBalancer().getMaxEjectionMillis());
+        this.stats = Caffeine.newBuilder()
+                .expireAfterAccess(idleMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return stats.get(key(instance), key -> new InstanceStats());
+    }
+
+    /**
+     * 记录一次请求完成，与get(instance).onStart()成对调用
+     *
+     * @param instance     服务实例
+     * @param latencyNanos 请求耗时（纳秒）
+     * @param failed       是否失败（连接异常、超时或5xx）
+     */
+    public void complete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        GatewayConfig.LoadBalancer config = gatewayConfig.getLoadBalancer();
+        get(instance).onComplete(
+                latencyNanos,
+                failed,
+                TimeUnit.MILLISECONDS.toNanos(config.getDecayMillis()),
+                config.getConsecutiveFailures(),
+                TimeUnit.MILLISECONDS.toNanos(config.getBaseEjectionMillis()),
+                TimeUnit.MILLISECONDS.toNanos(config.getMaxEjectionMillis()));
+    }
+
+    /**
+     * 登记由过滤器接管统计的负载均衡结果
+     */
+    public void handOff(Response<ServiceInstance> lbResponse) {
+        handedOff.put(lbResponse, Boolean.TRUE);
+    }
+
+    /**
+     * 取走接管登记，返回该负载均衡结果是否已由过滤器接管统计
+     */
+    public boolean takeHandedOff(Response<ServiceInstance> lbResponse) {
+        return handedOff.asMap().remove(lbResponse) != null;
+    }
+
+    private String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+}
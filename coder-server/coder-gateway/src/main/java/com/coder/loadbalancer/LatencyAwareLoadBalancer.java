@@ -0,0 +1,104 @@
+package com.coder.loadbalancer;
+
+import com.coder.config.GatewayConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 延迟感知负载均衡器
+ *
+ * 随机选取两个实例，选择代价（EWMA延迟 * (在途请求数 + 1)）较小的一个（Power of Two Choices），
+ * 慢实例自然分到更少的请求，又不会像全局选最优那样把流量集中到同一实例。
+ * 连续失败的实例会被临时摘除，摘除比例不超过max-ejection-percent。
+ * 未在gateway.load-balancer.latency-aware-services中的服务仍使用轮询。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceStatsRegistry instanceStatsRegistry;
+    private final GatewayConfig gatewayConfig;
+    private final RoundRobinLoadBalancer roundRobin;
+
+    public LatencyAwareLoadBalancer(String serviceId,
+                                    ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                    InstanceStatsRegistry instanceStatsRegistry,
+                                    GatewayConfig gatewayConfig) {
+        this.serviceId = serviceId;
+        this.supplierProvider = supplierProvider;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+        this.gatewayConfig = gatewayConfig;
+        this.roundRobin = new RoundRobinLoadBalancer(supplierProvider, serviceId);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        if (!gatewayConfig.getLoadBalancer().getLatencyAwareServices().contains(serviceId)) {
+            return roundRobin.choose(request);
+        }
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::select);
+    }
+
+    private Response<ServiceInstance> select(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("没有可用的服务实例: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        List<ServiceInstance> candidates = excludeEjected(instances);
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(instanceStatsRegistry.get(a).cost() <= instanceStatsRegistry.get(b).cost() ? a : b);
+    }
+
+    /**
+     * 排除摘除期内的实例，剩余实例比例低于(100 - max-ejection-percent)%时不排除
+     */
+    private List<ServiceInstance> excludeEjected(List<ServiceInstance> instances) {
+        long now = System.nanoTime();
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!instanceStatsRegistry.get(instance).isEjected(now)) {
+                healthy.add(instance);
+            }
+        }
+        int maxEjected = instances.size() * gatewayConfig.getLoadBalancer().getMaxEjectionPercent() / 100;
+        if (healthy.isEmpty() || instances.size() - healthy.size() > maxEjected) {
+            return instances;
+        }
+        return healthy;
+    }
+}
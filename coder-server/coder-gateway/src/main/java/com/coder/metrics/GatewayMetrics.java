@@ -0,0 +1,148 @@
+package com.coder.metrics;
+
+import com.coder.warmup.GatewayWarmup;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 网关指标
+ *
+ * 路由耗时由Spring Cloud Gateway记录（spring.cloud.gateway.requests，按路由、状态码区分），
+ * 此处补充认证各阶段耗时、本地缓存命中率和各过滤器的拒绝次数，通过/actuator/prometheus导出：
+ *     gateway.auth.jwt.verify       JWT验签耗时（含已验证Token缓存），outcome=success/expired/invalid
+ *     gateway.auth.session.check    登录状态检查耗时（本地缓存或Redis），outcome=valid/invalid
+ *     gateway.requests.rejected     被网关拒绝的请求数，reason见REJECT_*常量，route为路由ID
+ *     gateway.requests.hedged       对冲请求数，outcome=sent/won/no_budget，route为路由ID
+ *     gateway.requests.retried      重试请求数，outcome=sent/no_budget，route为路由ID
+ *     gateway.access.log.dropped    访问日志缓冲区已满丢弃的日志数
+ *     cache.gets / cache.size等     Caffeine本地缓存统计，cache为缓存名
+ * 网关启动时的预热请求不计入按请求统计的指标，spring.cloud.gateway.requests由WarmupMetricsConfig过滤。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Component
+public class GatewayMetrics {
+
+    public static final String REJECT_UNAUTHORIZED = "unauthorized";
+    public static final String REJECT_FORBIDDEN = "forbidden";
+    public static final String REJECT_RATE_LIMIT = "rate_limit";
+    public static final String REJECT_CIRCUIT_BREAKER = "circuit_breaker";
+    public static final String REJECT_BULKHEAD = "bulkhead";
+
+    private static final String UNKNOWN_ROUTE = "unknown";
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 记录JWT验签耗时
+     *
+     * @param outcome    验签结果
+     * @param startNanos 开始时间（System.nanoTime）
+     */
+    public void recordJwtVerify(String outcome, long startNanos) {
+        record("gateway.auth.jwt.verify", "JWT验签耗时", outcome, startNanos);
+    }
+
+    /**
+     * 记录登录状态检查耗时
+     *
+     * @param outcome    检查结果
+     * @param startNanos 开始时间（System.nanoTime）
+     */
+    public void recordSessionCheck(String outcome, long startNanos) {
+        record("gateway.auth.session.check", "登录状态检查耗时", outcome, startNanos);
+    }
+
+    /**
+     * 记录被网关拒绝的请求
+     *
+     * @param exchange 当前请求
+     * @param reason   拒绝原因
+     */
+    public void recordRejected(ServerWebExchange exchange, String reason) {
+        if (GatewayWarmup.isWarmup(exchange)) {
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.requests.rejected",
+                "reason", reason,
+                "route", route != null ? route.getId() : UNKNOWN_ROUTE).increment();
+    }
+
+    /**
+     * 记录对冲请求
+     *
+     * @param exchange 当前请求
+     * @param outcome  sent：已发出，won：先于首次请求响应，no_budget：预算不足未发出
+     */
+    public void recordHedge(ServerWebExchange exchange, String outcome) {
+        if (GatewayWarmup.isWarmup(exchange)) {
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.requests.hedged",
+                "outcome", outcome,
+                "route", route != null ? route.getId() : UNKNOWN_ROUTE).increment();
+    }
+
+    /**
+     * 记录重试请求
+     *
+     * @param exchange 当前请求
+     * @param outcome  sent：已重试，no_budget：预算不足未重试
+     */
+    public void recordRetry(ServerWebExchange exchange, String outcome) {
+        if (GatewayWarmup.isWarmup(exchange)) {
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.requests.retried",
+                "outcome", outcome,
+                "route", route != null ? route.getId() : UNKNOWN_ROUTE).increment();
+    }
+
+    /**
+     * 注册Caffeine缓存统计，缓存需使用recordStats()构建
+     *
+     * @param cache     缓存
+     * @param cacheName 缓存名
+     */
+    public void monitorCache(Cache<?, ?> cache, String cacheName) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName);
+    }
+
+    /**
+     * 注册由对象自身维护的单调递增计数
+     *
+     * @param name        指标名
+     * @param description 指标描述
+     * @param obj         持有计数的对象
+     * @param count       读取计数的函数
+     */
+    public <T> void monitorCounter(String name, String description, T obj, ToDoubleFunction<T> count) {
+        FunctionCounter.builder(name, obj, count)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private void record(String name, String description, String outcome, long startNanos) {
+        Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
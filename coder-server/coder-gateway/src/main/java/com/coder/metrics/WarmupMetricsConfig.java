@@ -0,0 +1,66 @@
+package com.coder.metrics;
+
+import com.coder.warmup.GatewayWarmup;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import org.springframework.cloud.gateway.config.GatewayMetricsProperties;
+import org.springframework.cloud.gateway.support.tagsprovider.GatewayTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 预热请求指标过滤配置
+ *
+ * spring.cloud.gateway.requests由GatewayMetricsFilter记录，无法在过滤器中跳过，
+ * 因此通过GatewayTagsProvider为预热请求加上warmup标签，再由MeterFilter处理：
+ *     预热请求的计时器改名为WARMUP_METER_SUFFIX结尾的指标并拒绝注册，不进入P99直方图
+ *     其他请求移除warmup标签，导出的标签与原来一致
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Configuration
+public class WarmupMetricsConfig {
+
+    private static final String WARMUP_TAG = "warmup";
+
+    private static final String WARMUP_METER_SUFFIX = ".warmup";
+
+    @Bean
+    public GatewayTagsProvider warmupTagsProvider() {
+        return exchange -> Tags.of(WARMUP_TAG, String.valueOf(GatewayWarmup.isWarmup(exchange)));
+    }
+
+    @Bean
+    public MeterFilter warmupMeterFilter(GatewayMetricsProperties properties) {
+        String requestsMeter = properties.getPrefix() + ".requests";
+        String warmupMeter = requestsMeter + WARMUP_METER_SUFFIX;
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (!requestsMeter.equals(id.getName()) || id.getTag(WARMUP_TAG) == null) {
+                    return id;
+                }
+                List<Tag> tags = new ArrayList<>();
+                for (Tag tag : id.getTagsAsIterable()) {
+                    if (!WARMUP_TAG.equals(tag.getKey())) {
+                        tags.add(tag);
+                    }
+                }
+                Meter.Id mapped = id.replaceTags(tags);
+                return Boolean.parseBoolean(id.getTag(WARMUP_TAG)) ? mapped.withName(warmupMeter) : mapped;
+            }
+
+            @Override
+            public MeterFilterReply accept(Meter.Id id) {
+                return warmupMeter.equals(id.getName()) ? MeterFilterReply.DENY : MeterFilterReply.NEUTRAL;
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.coder.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 登录状态服务接口
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public interface LoginStateService {
+
+    /**
+     * 判断Token是否为用户当前有效的登录Token
+     *
+     * @param userId 用户ID
+     * @param token  请求携带的Token
+     * @return 是否有效，Redis异常时返回false
+     */
+    Mono<Boolean> isCurrentToken(Long userId, String token);
+}
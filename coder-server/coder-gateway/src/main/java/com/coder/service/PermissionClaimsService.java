@@ -0,0 +1,21 @@
+package com.coder.service;
+
+import com.coder.dto.SignedPermissionClaims;
+import reactor.core.publisher.Mono;
+
+/**
+ * 权限声明服务接口
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+public interface PermissionClaimsService {
+
+    /**
+     * 获取用户已签名的权限声明
+     *
+     * @param userId 用户ID
+     * @return 已签名的权限声明，未启用或查询失败时为空
+     */
+    Mono<SignedPermissionClaims> getSignedClaims(Long userId);
+}
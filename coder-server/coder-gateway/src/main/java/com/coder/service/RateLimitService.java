@@ -0,0 +1,24 @@
+package com.coder.service;
+
+import com.coder.config.GatewayConfig;
+import com.coder.dto.RateLimitResult;
+import reactor.core.publisher.Mono;
+
+/**
+ * 限流服务接口
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public interface RateLimitService {
+
+    /**
+     * 按规则为一次请求申请令牌，规则中配置的用户、IP、整体维度需同时满足
+     *
+     * @param rule     限流规则
+     * @param userId   用户ID，匿名请求为null
+     * @param clientIp 客户端IP
+     * @return 限流判定结果，Redis异常时按本地令牌桶的结果放行
+     */
+    Mono<RateLimitResult> tryAcquire(GatewayConfig.RateLimitRule rule, Long userId, String clientIp);
+}
@@ -0,0 +1,22 @@
+package com.coder.service;
+
+import com.coder.context.PermissionClaims;
+
+/**
+ * 接口权限表服务接口
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+public interface RoutePermissionService {
+
+    /**
+     * 判断请求是否可以在网关直接拒绝
+     *
+     * @param method 请求方法
+     * @param path   请求路径
+     * @param claims 用户权限声明
+     * @return 权限表已加载、版本与权限声明一致，且用户不满足该接口的权限要求时返回true，其余情况返回false
+     */
+    boolean isForbidden(String method, String path, PermissionClaims claims);
+}
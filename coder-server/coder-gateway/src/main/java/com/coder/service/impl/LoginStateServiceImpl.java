@@ -0,0 +1,153 @@
+package com.coder.service.impl;
+
+import com.coder.config.GatewayConfig;
+import com.coder.constant.Constants;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.service.LoginStateService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 登录状态服务实现类
+ * 使用响应式Redis客户端查询登录状态，不阻塞事件循环线程
+ *
+ * 查询结果缓存在本地（userId -> 当前Token），coder-auth在登录、登出、刷新Token时
+ * 向Constants.CacheKey.USER_LOGIN_CHANNEL发布用户ID，收到后失效对应条目。
+ * 订阅未建立或已断开时不使用本地缓存，直接查询Redis，避免错过失效消息。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Service
+public class LoginStateServiceImpl implements LoginStateService {
+
+    /**
+     * 未登录占位值，Caffeine不能缓存null
+     */
+    private static final String LOGGED_OUT = "";
+
+    @Resource
+    private ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+
+    @Resource
+    private ReactiveRedisMessageListenerContainer listenerContainer;
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    private Cache<Long, String> loginCache;
+
+    /**
+     * 订阅是否已建立，仅在订阅有效期间读写本地缓存
+     */
+    private volatile boolean subscribed = false;
+
+    /**
+     * 失效代数，每次失效递增；查询Redis期间代数变化则不回填，防止旧值覆盖失效
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Disposable subscription;
+
+    @PostConstruct
+    public void init() {
+        GatewayConfig.LoginCache config = gatewayConfig.getLoginCache();
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return;
+        }
+
+        this.loginCache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getExpireSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        gatewayMetrics.monitorCache(loginCache, "gateway.login");
+
+        this.subscription = listenerContainer.receiveLater(ChannelTopic.of(Constants.CacheKey.USER_LOGIN_CHANNEL))
+                .doOnNext(messages -> {
+                    invalidateAll();
+                    subscribed = true;
+                    log.info("已订阅登录状态变更频道: {}", Constants.CacheKey.USER_LOGIN_CHANNEL);
+                })
+                .flatMapMany(Function.identity())
+                .doOnNext(message -> invalidate(message.getMessage()))
+                .doOnError(e -> {
+                    subscribed = false;
+                    invalidateAll();
+                    log.warn("登录状态变更订阅中断，暂停本地缓存: {}", e.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Boolean> isCurrentToken(Long userId, String token) {
+        boolean cacheable = subscribed;
+        if (cacheable) {
+            String currentToken = loginCache.getIfPresent(userId);
+            if (currentToken != null) {
+                return Mono.just(currentToken.equals(token));
+            }
+        }
+
+        long expectedGeneration = generation.get();
+        String loginKey = Constants.CacheKey.USER_LOGIN + userId;
+        return reactiveRedisTemplate.opsForValue().get(loginKey)
+                .map(Object::toString)
+                .defaultIfEmpty(LOGGED_OUT)
+                .doOnNext(currentToken -> {
+                    if (cacheable && subscribed && generation.get() == expectedGeneration) {
+                        loginCache.put(userId, currentToken);
+                    }
+                })
+                .map(currentToken -> currentToken.equals(token))
+                .onErrorResume(e -> {
+                    log.error("查询登录状态失败: key={}, error={}", loginKey, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * 失效单个用户的登录状态缓存
+     */
+    private void invalidate(String userId) {
+        generation.incrementAndGet();
+        try {
+            loginCache.invalidate(Long.valueOf(userId));
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的登录状态变更消息: {}", userId);
+        }
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        loginCache.invalidateAll();
+    }
+}
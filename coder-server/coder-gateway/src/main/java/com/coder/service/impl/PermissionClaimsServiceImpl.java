@@ -0,0 +1,187 @@
+package com.coder.service.impl;
+
+import com.coder.config.GatewayConfig;
+import com.coder.config.InternalCallSigningFilter;
+import com.coder.constant.Constants;
+import com.coder.context.PermissionClaims;
+import com.coder.dto.SignedPermissionClaims;
+import com.coder.metrics.GatewayMetrics;
+import com.coder.result.Result;
+import com.coder.service.PermissionClaimsService;
+import com.coder.utils.PermissionClaimsCodec;
+import com.coder.utils.StrUtils;
+import com.coder.vo.PermissionBitsVO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 权限声明服务实现类
+ *
+ * 从coder-user获取用户权限位图，用内部密钥签名后连同位图缓存在本地（userId -> 已签名的权限声明），
+ * 由网关随请求转发给下游服务，下游服务无需再逐个请求查询用户权限。
+ * 收到Constants.CacheKey.DATA_CHANGE_CHANNEL的数据变更消息时清空缓存；订阅未建立时不使用缓存。
+ * 查询失败时不携带权限声明，下游服务回退为自行查询。
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+@Slf4j
+@Service
+public class PermissionClaimsServiceImpl implements PermissionClaimsService {
+
+    /**
+     * 权限声明有效期在本地缓存时间基础上的延长量，覆盖缓存过期前最后一次转发的请求
+     */
+    private static final long EXPIRY_GRACE_SECONDS = 60L;
+
+    private static final ParameterizedTypeReference<Result<PermissionBitsVO>> RESULT_TYPE =
+            new ParameterizedTypeReference<Result<PermissionBitsVO>>() {};
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private GatewayMetrics gatewayMetrics;
+
+    @Resource
+    private WebClient.Builder loadBalancedWebClientBuilder;
+
+    @Resource
+    private InternalCallSigningFilter internalCallSigningFilter;
+
+    @Resource
+    private ReactiveRedisMessageListenerContainer listenerContainer;
+
+    @Value("${coder.security.internal-secret:}")
+    private String internalSecret;
+
+    private WebClient webClient;
+
+    private PermissionClaimsCodec codec;
+
+    private Cache<Long, SignedPermissionClaims> claimsCache;
+
+    /**
+     * 订阅是否已建立，仅在订阅有效期间读写本地缓存
+     */
+    private volatile boolean subscribed = false;
+
+    /**
+     * 失效代数，查询期间代数变化则不回填，防止旧权限覆盖失效
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Disposable subscription;
+
+    @PostConstruct
+    public void init() {
+        GatewayConfig.PermissionClaims config = gatewayConfig.getPermissionClaims();
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return;
+        }
+        if (StrUtils.isBlank(internalSecret)) {
+            log.warn("未配置coder.security.internal-secret，不转发权限声明");
+            return;
+        }
+
+        this.codec = new PermissionClaimsCodec(internalSecret);
+        this.webClient = loadBalancedWebClientBuilder.clone()
+                .baseUrl(config.getUserServiceUri())
+                .filter(internalCallSigningFilter)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtlSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        gatewayMetrics.monitorCache(claimsCache, "gateway.permission-claims");
+
+        this.subscription = listenerContainer.receiveLater(ChannelTopic.of(Constants.CacheKey.DATA_CHANGE_CHANNEL))
+                .doOnNext(messages -> {
+                    invalidateAll();
+                    subscribed = true;
+                    log.info("权限声明已订阅数据变更频道: {}", Constants.CacheKey.DATA_CHANGE_CHANNEL);
+                })
+                .flatMapMany(Function.identity())
+                .doOnNext(message -> invalidateAll())
+                .doOnError(e -> {
+                    subscribed = false;
+                    invalidateAll();
+                    log.warn("数据变更订阅中断，暂停权限声明缓存: {}", e.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    @Override
+    public Mono<SignedPermissionClaims> getSignedClaims(Long userId) {
+        if (codec == null) {
+            return Mono.empty();
+        }
+
+        boolean cacheable = subscribed;
+        if (cacheable) {
+            SignedPermissionClaims cached = claimsCache.getIfPresent(userId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+        }
+
+        long expectedGeneration = generation.get();
+        return webClient.get()
+                .uri("/coder/internal/user/{userId}/permission-bits", userId)
+                .retrieve()
+                .bodyToMono(RESULT_TYPE)
+                .filter(result -> result.isSuccess() && result.getData() != null)
+                .map(result -> sign(result.getData()))
+                .doOnNext(claims -> {
+                    if (cacheable && subscribed && generation.get() == expectedGeneration) {
+                        claimsCache.put(userId, claims);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("获取用户权限位图失败，不转发权限声明: userId={}, error={}", userId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private SignedPermissionClaims sign(PermissionBitsVO bitsVO) {
+        long expiresAt = System.currentTimeMillis() / 1000
+                + gatewayConfig.getPermissionClaims().getTtlSeconds() + EXPIRY_GRACE_SECONDS;
+        String value = codec.encode(bitsVO.getUserId(), bitsVO.getVersion(), bitsVO.getBitmap(), expiresAt);
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(bitsVO.getBitmap()));
+        return new SignedPermissionClaims(value, new PermissionClaims(bitsVO.getUserId(), bitsVO.getVersion(), bits));
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        claimsCache.invalidateAll();
+    }
+}
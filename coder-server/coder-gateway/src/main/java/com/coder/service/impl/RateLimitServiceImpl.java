@@ -0,0 +1,192 @@
+package com.coder.service.impl;
+
+import com.coder.config.GatewayConfig;
+import com.coder.constant.Constants;
+import com.coder.dto.RateLimitResult;
+import com.coder.service.RateLimitService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流服务实现类
+ *
+ * 两级令牌桶：
+ *     本地令牌桶：每个网关节点独立计数，桶内无令牌时直接拒绝，异常流量不会打到Redis
+ *     Redis令牌桶：本地放行后由Lua脚本原子地检查并扣减集群共享的令牌，保证多节点下的总体配额
+ * 单个节点的请求量不会超过集群总量，因此本地拒绝一定正确；Redis异常时退化为仅本地限流。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Service
+public class RateLimitServiceImpl implements RateLimitService {
+
+    /**
+     * 令牌桶脚本：KEYS为各维度的桶，ARGV依次为每个桶的补充速率（每秒）和容量。
+     * 所有桶都有令牌时才同时扣减，返回{是否放行, 建议等待毫秒数}。
+     */
+    private static final String TOKEN_BUCKET_SCRIPT =
+            "redis.replicate_commands() " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local allowed = 1 " +
+            "local wait = 0 " +
+            "local tokens = {} " +
+            "for i = 1, #KEYS do " +
+            "  local rate = tonumber(ARGV[i * 2 - 1]) " +
+            "  local capacity = tonumber(ARGV[i * 2]) " +
+            "  local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts') " +
+            "  local last = tonumber(bucket[1]) or capacity " +
+            "  local ts = tonumber(bucket[2]) or now " +
+            "  local filled = math.min(capacity, last + math.max(0, now - ts) * rate / 1000) " +
+            "  tokens[i] = filled " +
+            "  if filled < 1 then " +
+            "    allowed = 0 " +
+            "    wait = math.max(wait, math.ceil((1 - filled) * 1000 / rate)) " +
+            "  end " +
+            "end " +
+            "for i = 1, #KEYS do " +
+            "  local rate = tonumber(ARGV[i * 2 - 1]) " +
+            "  local capacity = tonumber(ARGV[i * 2]) " +
+            "  redis.call('HMSET', KEYS[i], 'tokens', tokens[i] - allowed, 'ts', now) " +
+            "  redis.call('PEXPIRE', KEYS[i], math.ceil(capacity * 1000 / rate) * 2) " +
+            "end " +
+            "return {allowed, wait}";
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> REDIS_SCRIPT =
+            new DefaultRedisScript(TOKEN_BUCKET_SCRIPT, List.class);
+
+    @Resource
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    private Cache<String, LocalTokenBucket> localBuckets;
+
+    @PostConstruct
+    public void init() {
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(gatewayConfig.getRateLimit().getLocalMaxSize())
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Nacos配置刷新后桶的容量和速率可能已变化，丢弃本地令牌桶按新规则重建。
+     * Redis令牌桶每次调用都携带最新规则，无需处理。
+     */
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange() {
+        localBuckets.invalidateAll();
+    }
+
+    @Override
+    public Mono<RateLimitResult> tryAcquire(GatewayConfig.RateLimitRule rule, Long userId, String clientIp) {
+        List<String> keys = new ArrayList<>(3);
+        List<GatewayConfig.Bucket> buckets = new ArrayList<>(3);
+        String prefix = Constants.CacheKey.RATE_LIMIT + "{" + rule.getId() + "}:";
+        addBucket(keys, buckets, rule.getUser(), userId == null ? null : prefix + "user:" + userId);
+        addBucket(keys, buckets, rule.getIp(), clientIp == null ? null : prefix + "ip:" + clientIp);
+        addBucket(keys, buckets, rule.getRoute(), prefix + "route");
+        if (keys.isEmpty()) {
+            return Mono.just(RateLimitResult.allowed());
+        }
+
+        // 本地令牌桶：任一维度无令牌即拒绝，全部满足才扣减
+        List<LocalTokenBucket> locals = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            GatewayConfig.Bucket bucket = buckets.get(i);
+            LocalTokenBucket local = localBuckets.get(keys.get(i),
+                    key -> new LocalTokenBucket(bucket.getCapacity(), bucket.getReplenishRate()));
+            long waitMillis = local.waitMillis();
+            if (waitMillis > 0) {
+                return Mono.just(RateLimitResult.rejected(waitMillis));
+            }
+            locals.add(local);
+        }
+        locals.forEach(LocalTokenBucket::consume);
+
+        // Redis令牌桶：集群维度的配额
+        List<String> args = new ArrayList<>(buckets.size() * 2);
+        for (GatewayConfig.Bucket bucket : buckets) {
+            args.add(String.valueOf(bucket.getReplenishRate()));
+            args.add(String.valueOf(bucket.getCapacity()));
+        }
+        return reactiveStringRedisTemplate.execute(REDIS_SCRIPT, keys, args)
+                .next()
+                .map(result -> result.get(0) == 1L
+                        ? RateLimitResult.allowed()
+                        : RateLimitResult.rejected(result.get(1)))
+                .defaultIfEmpty(RateLimitResult.allowed())
+                .onErrorResume(e -> {
+                    log.warn("Redis限流失败，仅按本地令牌桶限流: rule={}, error={}", rule.getId(), e.getMessage());
+                    return Mono.just(RateLimitResult.allowed());
+                });
+    }
+
+    private void addBucket(List<String> keys, List<GatewayConfig.Bucket> buckets, GatewayConfig.Bucket bucket, String key) {
+        if (key == null || bucket == null || bucket.getCapacity() == null || bucket.getReplenishRate() == null
+                || bucket.getCapacity() <= 0 || bucket.getReplenishRate() <= 0) {
+            return;
+        }
+        keys.add(key);
+        buckets.add(bucket);
+    }
+
+    /**
+     * 本地令牌桶，按时间差惰性补充令牌
+     */
+    private static final class LocalTokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        LocalTokenBucket(int capacity, double replenishRatePerSecond) {
+            this.capacity = capacity;
+            this.tokensPerNano = replenishRatePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * 距离获得一个令牌还需等待的毫秒数，0表示当前可用
+         */
+        synchronized long waitMillis() {
+            refill();
+            if (tokens >= 1) {
+                return 0L;
+            }
+            return Math.max(1L, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - tokens) / tokensPerNano)));
+        }
+
+        synchronized void consume() {
+            refill();
+            tokens = Math.max(0, tokens - 1);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
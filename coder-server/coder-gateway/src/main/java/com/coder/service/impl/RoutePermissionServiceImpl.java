@@ -0,0 +1,222 @@
+package com.coder.service.impl;
+
+import com.coder.config.GatewayConfig;
+import com.coder.config.InternalCallSigningFilter;
+import com.coder.context.PermissionClaims;
+import com.coder.result.Result;
+import com.coder.service.RoutePermissionService;
+import com.coder.utils.PathPatternMatcher;
+import com.coder.vo.RoutePermissionTableVO;
+import com.coder.vo.RoutePermissionVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 接口权限表服务实现类
+ *
+ * 定时查询coder-user的接口权限表版本，版本变化时重新加载并编译为路径匹配器。
+ * 只有权限表的权限目录版本与用户权限声明一致时才在网关判断，判断规则：
+ *     请求命中的需要权限的接口中，任一接口的权限要求被满足则放行；
+ *     命中了不要求权限的接口则放行（路径模式有重叠时无法确定下游实际选中哪个接口）；
+ *     否则拒绝。
+ * 权限表未加载、版本不一致或未命中任何接口时都放行，由下游PermissionAspect检查。
+ *
+ * @author Sunset
+ * @date 2025/8/17
+ */
+@Slf4j
+@Service
+public class RoutePermissionServiceImpl implements RoutePermissionService {
+
+    private static final ParameterizedTypeReference<Result<Long>> VERSION_TYPE =
+            new ParameterizedTypeReference<Result<Long>>() {};
+
+    private static final ParameterizedTypeReference<Result<RoutePermissionTableVO>> TABLE_TYPE =
+            new ParameterizedTypeReference<Result<RoutePermissionTableVO>>() {};
+
+    /**
+     * 不限请求方法的接口在openRoutes中的键
+     */
+    private static final String ANY_METHOD = "*";
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private WebClient.Builder loadBalancedWebClientBuilder;
+
+    @Resource
+    private InternalCallSigningFilter internalCallSigningFilter;
+
+    private WebClient webClient;
+
+    private volatile CompiledTable table;
+
+    private Disposable refresher;
+
+    @PostConstruct
+    public void init() {
+        GatewayConfig.EdgeAuthorization config = gatewayConfig.getEdgeAuthorization();
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return;
+        }
+
+        this.webClient = loadBalancedWebClientBuilder.clone()
+                .baseUrl(config.getUserServiceUri())
+                .filter(internalCallSigningFilter)
+                .build();
+        this.refresher = Flux.interval(Duration.ZERO, Duration.ofSeconds(config.getRefreshSeconds()))
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    @Override
+    public boolean isForbidden(String method, String path, PermissionClaims claims) {
+        CompiledTable current = table;
+        if (current == null || claims == null || claims.getVersion() != current.catalogVersion) {
+            return false;
+        }
+
+        boolean denied = false;
+        for (ProtectedRoute route : current.protectedRoutes) {
+            if (route.matches(method, path)) {
+                if (route.allows(claims)) {
+                    return false;
+                }
+                denied = true;
+            }
+        }
+        return denied && !current.isOpen(method, path);
+    }
+
+    private Mono<Void> refresh() {
+        return get("/coder/internal/user/route-permissions/version", VERSION_TYPE)
+                .filter(version -> table == null || table.version != version)
+                .flatMap(version -> get("/coder/internal/user/route-permissions", TABLE_TYPE))
+                .doOnNext(tableVO -> {
+                    table = compile(tableVO);
+                    log.info("接口权限表已更新，版本：{}，权限目录版本：{}，接口数量：{}",
+                            tableVO.getVersion(), tableVO.getCatalogVersion(), tableVO.getRoutes().size());
+                })
+                .onErrorResume(e -> {
+                    log.warn("加载接口权限表失败，继续使用当前版本: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private <T> Mono<T> get(String uri, ParameterizedTypeReference<Result<T>> type) {
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(type)
+                .filter(result -> result.isSuccess() && result.getData() != null)
+                .map(Result::getData);
+    }
+
+    private static CompiledTable compile(RoutePermissionTableVO tableVO) {
+        List<ProtectedRoute> protectedRoutes = new ArrayList<>();
+        Map<String, List<String>> openPatterns = new HashMap<>();
+        for (RoutePermissionVO route : tableVO.getRoutes()) {
+            if (route.getPermissions() == null || route.getPermissions().isEmpty()) {
+                if (route.getMethods() == null || route.getMethods().isEmpty()) {
+                    openPatterns.computeIfAbsent(ANY_METHOD, key -> new ArrayList<>()).addAll(route.getPatterns());
+                } else {
+                    for (String method : route.getMethods()) {
+                        openPatterns.computeIfAbsent(method, key -> new ArrayList<>()).addAll(route.getPatterns());
+                    }
+                }
+            } else {
+                protectedRoutes.add(new ProtectedRoute(route));
+            }
+        }
+
+        Map<String, PathPatternMatcher> openRoutes = new HashMap<>();
+        openPatterns.forEach((method, patterns) -> openRoutes.put(method, PathPatternMatcher.compile(patterns)));
+        return new CompiledTable(tableVO.getVersion(), tableVO.getCatalogVersion(), protectedRoutes, openRoutes);
+    }
+
+    /**
+     * 编译后的接口权限表
+     */
+    private static class CompiledTable {
+        private final long version;
+        private final long catalogVersion;
+        private final List<ProtectedRoute> protectedRoutes;
+        private final Map<String, PathPatternMatcher> openRoutes; // 请求方法 -> 不要求权限的接口路径
+
+        CompiledTable(long version, long catalogVersion, List<ProtectedRoute> protectedRoutes,
+                      Map<String, PathPatternMatcher> openRoutes) {
+            this.version = version;
+            this.catalogVersion = catalogVersion;
+            this.protectedRoutes = protectedRoutes;
+            this.openRoutes = openRoutes;
+        }
+
+        boolean isOpen(String method, String path) {
+            return matches(openRoutes.get(method), path)
+                    || ("HEAD".equals(method) && matches(openRoutes.get("GET"), path))
+                    || matches(openRoutes.get(ANY_METHOD), path);
+        }
+
+        private static boolean matches(PathPatternMatcher matcher, String path) {
+            return matcher != null && matcher.matches(path);
+        }
+    }
+
+    /**
+     * 需要权限的接口
+     */
+    private static class ProtectedRoute {
+        private final Set<String> methods; // 为空表示不限方法
+        private final PathPatternMatcher matcher;
+        private final int[] indexes;
+        private final boolean requireAll;
+
+        ProtectedRoute(RoutePermissionVO route) {
+            this.methods = route.getMethods() != null ? new HashSet<>(route.getMethods()) : Collections.emptySet();
+            this.matcher = PathPatternMatcher.compile(route.getPatterns());
+            this.indexes = route.getIndexes().stream().mapToInt(Integer::intValue).toArray();
+            this.requireAll = !Boolean.FALSE.equals(route.getRequireAll());
+        }
+
+        boolean matches(String method, String path) {
+            return (methods.isEmpty() || methods.contains(method) || ("HEAD".equals(method) && methods.contains("GET")))
+                    && matcher.matches(path);
+        }
+
+        boolean allows(PermissionClaims claims) {
+            for (int index : indexes) {
+                if (claims.has(index) != requireAll) {
+                    return !requireAll;
+                }
+            }
+            return requireAll;
+        }
+    }
+}
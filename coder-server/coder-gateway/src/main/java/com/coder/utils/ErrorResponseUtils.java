@@ -0,0 +1,41 @@
+package com.coder.utils;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 网关错误响应工具类
+ * 使用预序列化的ErrorResponseTemplate写出错误响应，响应体写入池化缓冲区，由Netty写出后释放
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public final class ErrorResponseUtils {
+
+    private static final MediaType JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    private ErrorResponseUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 写出错误响应
+     *
+     * @param response 响应
+     * @param status   HTTP状态码
+     * @param template 错误响应模板
+     * @return 写出完成信号
+     */
+    public static Mono<Void> write(ServerHttpResponse response, int status, ErrorResponseTemplate template) {
+        response.setRawStatusCode(status);
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(JSON_UTF8);
+        long timestamp = System.currentTimeMillis();
+        headers.setContentLength(template.contentLength(timestamp));
+        return response.writeWith(Mono.fromSupplier(() -> template.writeTo(response.bufferFactory(), timestamp)));
+    }
+}
@@ -1,6 +1,9 @@
 package com.coder.utils;
 
+import com.coder.dto.TokenClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -26,9 +29,17 @@ public class JwtUtils {
 
     private Key key;
 
+    /**
+     * 解析器线程安全，初始化时构建一次，避免每次解析重新构建
+     */
+    private JwtParser jwtParser;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String getTokenFromHeader(String authHeader) {
@@ -38,6 +49,24 @@ public class JwtUtils {
         return null;
     }
 
+    /**
+     * 一次解析并验签，同时取出用户名、用户ID和过期时间
+     *
+     * @param token JWT Token
+     * @return Token声明
+     * @throws JwtException 签名无效、格式错误或已过期
+     */
+    public TokenClaims parseToken(String token) {
+        Claims claims = getAllClaimsFromToken(token);
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new JwtException("Token缺少过期时间");
+        }
+        return new TokenClaims(claims.getSubject(),
+                Long.valueOf(claims.get("userId").toString()),
+                expiration.getTime());
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -72,10 +101,6 @@ public class JwtUtils {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.coder.utils;
+
+import com.coder.result.ResultCode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * 下游Result响应体工具类
+ *
+ * 下游服务的业务异常（BusinessException）以HTTP 200加错误Result.code返回，
+ * 缓存、合并等需要复用响应体的场景必须按code判断是否成功，不能只看HTTP状态码。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public final class ResultBodyUtils {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String CODE_FIELD = "code";
+
+    private ResultBodyUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 响应体是否为成功的Result：顶层JSON对象的code等于ResultCode.SUCCESS
+     * 只读取到顶层code字段为止，不反序列化data
+     *
+     * @param body 响应体
+     * @return 不是JSON对象、没有code字段或code不是成功时返回false
+     */
+    public static boolean isSuccess(byte[] body) {
+        if (body == null || body.length == 0) {
+            return false;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                token = parser.nextToken();
+                if (CODE_FIELD.equals(field)) {
+                    return token == JsonToken.VALUE_NUMBER_INT
+                            && parser.getIntValue() == ResultCode.SUCCESS.getCode();
+                }
+                parser.skipChildren();
+            }
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
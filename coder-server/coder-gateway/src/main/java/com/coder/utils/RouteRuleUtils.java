@@ -0,0 +1,52 @@
+package com.coder.utils;
+
+import com.coder.config.GatewayConfig;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * 路由规则匹配工具类
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+public final class RouteRuleUtils {
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private RouteRuleUtils() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * 按顺序匹配第一条路由ID和路径都满足的规则
+     *
+     * @param rules    规则列表
+     * @param exchange 当前请求
+     * @return 匹配的规则，未匹配返回null
+     */
+    public static <T extends GatewayConfig.RouteRule> T match(List<T> rules, ServerWebExchange exchange) {
+        if (rules == null || rules.isEmpty()) {
+            return null;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : null;
+        String path = exchange.getRequest().getURI().getPath();
+
+        for (T rule : rules) {
+            if (StrUtils.isNotBlank(rule.getRouteId()) && !rule.getRouteId().equals(routeId)) {
+                continue;
+            }
+            List<String> paths = rule.getPaths();
+            if (paths == null || paths.isEmpty() || paths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))) {
+                return rule;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,220 @@
+package com.coder.warmup;
+
+import com.coder.config.GatewayConfig;
+import com.coder.config.RouteHttpClients;
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关启动预热
+ *
+ * 应用启动完成后依次执行：
+ *     1. 为全部lb://路由的服务初始化负载均衡器并从Nacos拉取实例列表
+ *     2. 按路由使用的HttpClient（HTTP/1.1或h2c）向每个实例并发请求instance-path，在连接池中预先建立连接
+ *     3. 向本机端口发送gateway.warmup.requests中的请求，使过滤器链完成类加载和JIT编译
+ * 预热请求携带X-Gateway-Warmup请求头，值为进程启动时随机生成的令牌，由WarmupRequestFilter校验后标记：
+ * 认证过滤器按匿名请求放行，经过其余过滤器后由WarmupResponseFilter在负载均衡之前直接返回204，不转发给下游服务；
+ * 不计入spring.cloud.gateway.requests（见WarmupMetricsConfig）和网关自定义指标，也不写访问日志。
+ * 预热完成前健康检查gatewayWarmup为OUT_OF_SERVICE，/actuator/health整体不可用，负载均衡不会将流量导入。
+ * 任一步骤失败只记录日志，超过timeout-seconds后直接标记为就绪，不会因预热阻止节点上线。
+ *
+ * @author Sunset
+ * @date 2025/8/15
+ */
+@Slf4j
+@Component
+public class GatewayWarmup implements HealthIndicator {
+
+    private static final String LB_SCHEME = "lb";
+
+    /**
+     * 预热请求头，值为warmupToken
+     */
+    public static final String WARMUP_HEADER = "X-Gateway-Warmup";
+
+    /**
+     * 校验通过的预热请求的交换属性
+     */
+    public static final String WARMUP_ATTRIBUTE = GatewayWarmup.class.getName() + ".warmup";
+
+    /**
+     * 本进程的预热令牌，客户端无法伪造
+     */
+    private final byte[] warmupToken = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 单个服务拉取实例列表的超时时间
+     */
+    private static final Duration INSTANCE_FETCH_TIMEOUT = Duration.ofSeconds(10);
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private RouteLocator routeLocator;
+
+    @Resource
+    private LoadBalancerClientFactory loadBalancerClientFactory;
+
+    @Resource
+    private RouteHttpClients routeHttpClients;
+
+    @Resource
+    private HttpClient httpClient;
+
+    private volatile boolean ready = false;
+
+    private volatile String phase = "starting";
+
+    private volatile long durationMillis;
+
+    @Override
+    public Health health() {
+        if (ready) {
+            return Health.up().withDetail("durationMillis", durationMillis).build();
+        }
+        return Health.outOfService().withDetail("phase", phase).build();
+    }
+
+    /**
+     * 是否为本进程发出的预热请求
+     */
+    public boolean isWarmupToken(String value) {
+        return value != null && MessageDigest.isEqual(warmupToken, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 当前请求是否已被标记为预热请求
+     */
+    public static boolean isWarmup(ServerWebExchange exchange) {
+        return Boolean.TRUE.equals(exchange.getAttribute(WARMUP_ATTRIBUTE));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        GatewayConfig.Warmup config = gatewayConfig.getWarmup();
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            ready = true;
+            return;
+        }
+
+        Integer port = event.getApplicationContext().getEnvironment().getProperty("local.server.port", Integer.class);
+        long start = System.nanoTime();
+        log.info("网关预热开始");
+        routeLocator.getRoutes()
+                .filter(route -> LB_SCHEME.equals(route.getUri().getScheme()))
+                .collectList()
+                .flatMap(routes -> prefetchAndConnect(routes, config))
+                .then(Mono.defer(() -> port != null ? sendRequests(port, config) : Mono.empty()))
+                .timeout(Duration.ofSeconds(config.getTimeoutSeconds()))
+                .doOnError(e -> log.warn("网关预热未完成，直接标记为就绪: phase={}, error={}", phase, e.toString()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> {
+                    durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    ready = true;
+                    log.info("网关预热结束，耗时{}ms", durationMillis);
+                })
+                .subscribe();
+    }
+
+    /**
+     * 拉取实例列表并预建连接
+     */
+    private Mono<Void> prefetchAndConnect(List<Route> routes, GatewayConfig.Warmup config) {
+        phase = "instances";
+        // 多个路由使用同一服务和同一HttpClient时只预建一次连接
+        Set<List<Object>> connected = Collections.synchronizedSet(new HashSet<>());
+        return Flux.fromIterable(routes)
+                .flatMap(route -> fetchInstances(route.getUri().getHost())
+                        .flatMapMany(Flux::fromIterable)
+                        .filter(instance -> connected.add(Arrays.asList(routeHttpClients.get(route), instance.getUri())))
+                        .flatMap(instance -> connect(routeHttpClients.get(route), instance, config)))
+                .then();
+    }
+
+    /**
+     * 初始化服务的负载均衡器并拉取实例列表
+     */
+    private Mono<List<ServiceInstance>> fetchInstances(String serviceId) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerClientFactory.getInstance(serviceId);
+        ServiceInstanceListSupplier supplier = loadBalancerClientFactory.getInstance(serviceId,
+                ServiceInstanceListSupplier.class);
+        if (loadBalancer == null || supplier == null) {
+            return Mono.empty();
+        }
+        return Mono.from(loadBalancer.choose())
+                .then(supplier.get().next())
+                .timeout(INSTANCE_FETCH_TIMEOUT)
+                .doOnNext(instances -> log.info("预热服务实例: service={}, instances={}", serviceId, instances.size()))
+                .onErrorResume(e -> {
+                    log.warn("预热服务实例失败: service={}, error={}", serviceId, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 并发请求实例，使连接池中保留connections-per-instance个连接
+     */
+    private Mono<Void> connect(HttpClient client, ServiceInstance instance, GatewayConfig.Warmup config) {
+        phase = "connections";
+        String uri = instance.getUri() + config.getInstancePath();
+        int connections = config.getConnectionsPerInstance();
+        return Flux.range(0, connections)
+                .flatMap(i -> client.get().uri(uri).response()
+                        .onErrorResume(e -> {
+                            log.warn("预建连接失败: uri={}, error={}", uri, e.toString());
+                            return Mono.empty();
+                        }), connections)
+                .then();
+    }
+
+    /**
+     * 向本机发送预热请求，经过完整的过滤器链
+     */
+    private Mono<Void> sendRequests(int port, GatewayConfig.Warmup config) {
+        phase = "requests";
+        return Flux.fromIterable(config.getRequests())
+                .concatMap(request -> {
+                    HttpClient client = httpClient.headers(headers -> {
+                        request.getHeaders().forEach(headers::set);
+                        headers.set(WARMUP_HEADER, new String(warmupToken, StandardCharsets.UTF_8));
+                    });
+                    HttpMethod method = HttpMethod.valueOf(request.getMethod());
+                    String uri = "http://localhost:" + port + request.getPath();
+                    return Flux.range(0, request.getIterations())
+                            .flatMap(i -> client.request(method).uri(uri).response()
+                                    .onErrorResume(e -> Mono.empty()), config.getConcurrency())
+                            .then()
+                            .doOnSuccess(ignored -> log.info("预热请求完成: {} {}, 次数: {}",
+                                    request.getMethod(), request.getPath(), request.getIterations()));
+                })
+                .then();
+    }
+}
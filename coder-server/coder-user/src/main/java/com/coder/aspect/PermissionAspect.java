@@ -3,9 +3,11 @@ package com.coder.aspect;
 import com.coder.annotation.RequiresPermission;
 import com.coder.annotation.RequiresPermissions;
 import com.coder.annotation.RequiresRoles;
+import com.coder.context.PermissionClaims;
 import com.coder.context.UserContext;
 import com.coder.exception.BusinessException;
 import com.coder.result.ResultCode;
+import com.coder.service.PermissionCatalogService;
 import com.coder.service.UserService;
 import com.coder.vo.UserPermissionVO;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +30,9 @@ public class PermissionAspect {
     @Resource
     private UserService userService;
 
+    @Resource
+    private PermissionCatalogService permissionCatalogService;
+
     /**
      * 权限检查切面（单数形式）
      */
@@ -36,7 +41,6 @@ public class PermissionAspect {
         log.debug("执行权限检查：{}", Arrays.toString(requiresPermission.value()));
 
         Long currentUserId = getCurrentUserId();
-        UserPermissionVO permissionInfo = getUserPermissionInfo(currentUserId);
 
         String[] requiredPermissions = requiresPermission.value();
         if (requiredPermissions.length == 0) {
@@ -44,7 +48,7 @@ public class PermissionAspect {
         }
 
         boolean hasPermission = checkUserPermissions(
-                permissionInfo.getPermissions(),
+                currentUserId,
                 requiredPermissions,
                 requiresPermission.logical() == RequiresPermission.Logical.AND
         );
@@ -64,7 +68,6 @@ public class PermissionAspect {
         log.debug("执行权限检查：{}", Arrays.toString(requiresPermissions.value()));
 
         Long currentUserId = getCurrentUserId();
-        UserPermissionVO permissionInfo = getUserPermissionInfo(currentUserId);
 
         String[] requiredPermissions = requiresPermissions.value();
         if (requiredPermissions.length == 0) {
@@ -72,7 +75,7 @@ public class PermissionAspect {
         }
 
         boolean hasPermission = checkUserPermissions(
-                permissionInfo.getPermissions(),
+                currentUserId,
                 requiredPermissions,
                 requiresPermissions.logical() == RequiresPermissions.Logical.AND
         );
@@ -155,6 +158,29 @@ public class PermissionAspect {
         return userService.getUserPermissionInfo(currentUserId);
     }
 
+    /**
+     * 检查用户权限
+     * 请求携带与当前权限目录版本一致的权限声明时直接按位图判断，否则查询用户完整权限信息
+     */
+    private boolean checkUserPermissions(Long currentUserId, String[] requiredPermissions, boolean isAnd) {
+        PermissionClaims claims = UserContext.getPermissionClaims();
+        if (claims != null && claims.getVersion() == permissionCatalogService.getVersion()) {
+            return checkPermissionClaims(claims, requiredPermissions, isAnd);
+        }
+        return checkUserPermissions(getUserPermissionInfo(currentUserId).getPermissions(), requiredPermissions, isAnd);
+    }
+
+    /**
+     * 按权限位图检查用户权限
+     */
+    private boolean checkPermissionClaims(PermissionClaims claims, String[] requiredPermissions, boolean isAnd) {
+        if (isAnd) {
+            return Arrays.stream(requiredPermissions).allMatch(p -> claims.has(permissionCatalogService.indexOf(p)));
+        } else {
+            return Arrays.stream(requiredPermissions).anyMatch(p -> claims.has(permissionCatalogService.indexOf(p)));
+        }
+    }
+
     /**
      * 检查用户权限
      */
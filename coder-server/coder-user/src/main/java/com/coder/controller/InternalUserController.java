@@ -0,0 +1,88 @@
+package com.coder.controller;
+
+import com.coder.context.UserContext;
+import com.coder.dto.UserAuthenticateDTO;
+import com.coder.exception.BusinessException;
+import com.coder.result.Result;
+import com.coder.result.ResultCode;
+import com.coder.service.PermissionCatalogService;
+import com.coder.service.RoutePermissionService;
+import com.coder.service.UserService;
+import com.coder.vo.PermissionBitsVO;
+import com.coder.vo.RoutePermissionTableVO;
+import com.coder.vo.UserAuthenticationVO;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 用户内部接口控制器
+ * 只供网关和其他服务调用，网关不转发/coder/internal/**，且只接受签名有效的内部调用（见InternalCallSigner）
+ *
+ * @author Sunset
+ * @date 2025-08-15
+ */
+@Slf4j
+@Validated
+@RestController
+@RequestMapping("/coder/internal/user")
+@Api(tags = "用户内部接口")
+public class InternalUserController {
+
+    @Resource
+    private PermissionCatalogService permissionCatalogService;
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private RoutePermissionService routePermissionService;
+
+    @GetMapping("/{userId}/permission-bits")
+    @ApiOperation("根据用户ID查询用户权限位图（供网关签发权限声明）")
+    public Result<PermissionBitsVO> getUserPermissionBits(
+            @ApiParam(value = "用户ID", required = true)
+            @PathVariable @NotNull(message = "用户ID不能为空") Long userId) {
+        requireInternalCall();
+        PermissionBitsVO bitsVO = permissionCatalogService.getPermissionBits(userId);
+        return Result.success("查询成功", bitsVO);
+    }
+
+    @GetMapping("/route-permissions")
+    @ApiOperation("查询接口权限表（供网关在边缘鉴权）")
+    public Result<RoutePermissionTableVO> getRoutePermissions() {
+        requireInternalCall();
+        return Result.success("查询成功", routePermissionService.getTable());
+    }
+
+    @GetMapping("/route-permissions/version")
+    @ApiOperation("查询接口权限表版本（供网关判断是否需要重新加载）")
+    public Result<Long> getRoutePermissionsVersion() {
+        requireInternalCall();
+        return Result.success("查询成功", routePermissionService.getVersion());
+    }
+
+    @PostMapping("/authenticate")
+    @ApiOperation("认证用户（校验密码并返回用户信息和权限信息，供认证服务登录使用）")
+    public Result<UserAuthenticationVO> authenticate(@Valid @RequestBody UserAuthenticateDTO authenticateDTO) {
+        requireInternalCall();
+        return Result.success("认证完成",
+                userService.authenticate(authenticateDTO.getUsername(), authenticateDTO.getPassword()));
+    }
+
+    /**
+     * 拒绝非内部服务调用：只认AuthInterceptor校验签名后设置的内部调用标记，不按用户ID判断
+     */
+    private void requireInternalCall() {
+        if (!UserContext.isInternalCall()) {
+            throw new BusinessException(ResultCode.FORBIDDEN, "仅限内部服务调用");
+        }
+    }
+}
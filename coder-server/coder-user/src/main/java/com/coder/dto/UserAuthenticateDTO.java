@@ -0,0 +1,26 @@
+package com.coder.dto;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * 用户认证DTO（供认证服务登录使用，密码放在请求体中，不出现在URL和访问日志里）
+ *
+ * @author Sunset
+ * @date 2025-08-15
+ */
+@Data
+@ApiModel(value = "UserAuthenticateDTO", description = "用户认证请求对象")
+public class UserAuthenticateDTO {
+
+    @ApiModelProperty(value = "用户名", required = true)
+    @NotBlank(message = "用户名不能为空")
+    private String username;
+
+    @ApiModelProperty(value = "密码", required = true)
+    @NotBlank(message = "密码不能为空")
+    private String password;
+}
@@ -121,6 +121,13 @@ public interface MenuMapper {
      */
     List<String> selectPermissionsByUserId(@Param("userId") Long userId);
 
+    /**
+     * 查询全部启用的权限标识，按权限标识排序
+     *
+     * @return 权限标识列表
+     */
+    List<String> selectAllPermissions();
+
     /**
      * 检查菜单是否有子菜单
      *
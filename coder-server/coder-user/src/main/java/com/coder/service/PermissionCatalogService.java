@@ -0,0 +1,41 @@
+package com.coder.service;
+
+import com.coder.vo.PermissionBitsVO;
+
+/**
+ * 权限目录服务接口
+ * 为全部启用的权限标识分配稳定下标，用户权限以位图形式下发给网关签名转发
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+public interface PermissionCatalogService {
+
+    /**
+     * 获取当前权限目录版本
+     *
+     * @return 目录版本，由目录内容计算，相同内容在各实例上版本一致
+     */
+    long getVersion();
+
+    /**
+     * 获取权限标识在目录中的下标
+     *
+     * @param permission 权限标识
+     * @return 下标，不存在时返回-1
+     */
+    int indexOf(String permission);
+
+    /**
+     * 获取用户权限位图
+     *
+     * @param userId 用户ID
+     * @return 用户权限位图
+     */
+    PermissionBitsVO getPermissionBits(Long userId);
+
+    /**
+     * 使权限目录失效，下次访问时重新加载
+     */
+    void invalidate();
+}
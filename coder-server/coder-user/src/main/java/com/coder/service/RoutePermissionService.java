@@ -0,0 +1,27 @@
+package com.coder.service;
+
+import com.coder.vo.RoutePermissionTableVO;
+
+/**
+ * 接口权限表服务接口
+ * 汇总本服务全部接口的路径、请求方法和所需权限，供网关在边缘提前拒绝无权限的请求
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+public interface RoutePermissionService {
+
+    /**
+     * 获取当前接口权限表版本
+     *
+     * @return 权限表版本，接口或权限目录变化时改变
+     */
+    long getVersion();
+
+    /**
+     * 获取接口权限表
+     *
+     * @return 接口权限表
+     */
+    RoutePermissionTableVO getTable();
+}
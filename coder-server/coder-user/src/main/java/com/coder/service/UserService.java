@@ -3,6 +3,7 @@ package com.coder.service;
 import com.coder.dto.UserCreateDTO;
 import com.coder.dto.UserQueryDTO;
 import com.coder.dto.UserUpdateDTO;
+import com.coder.vo.UserAuthenticationVO;
 import com.coder.vo.UserPermissionVO;
 import com.coder.vo.UserVO;
 import com.github.pagehelper.PageInfo;
@@ -26,6 +27,16 @@ public interface UserService {
      */
     Boolean validatePassword(String username, String password);
 
+    /**
+     * 认证用户
+     * 校验密码和账户状态，认证成功时一并返回用户信息和权限信息
+     *
+     * @param username 用户名
+     * @param password 明文密码
+     * @return 认证结果
+     */
+    UserAuthenticationVO authenticate(String username, String password);
+
     /**
      * 创建用户
      *
@@ -9,6 +9,7 @@ import com.coder.exception.BusinessException;
 import com.coder.mapper.MenuMapper;
 import com.coder.result.ResultCode;
 import com.coder.service.MenuService;
+import com.coder.service.PermissionCatalogService;
 import com.coder.utils.RedisUtils;
 import com.coder.utils.StrUtils;
 import com.coder.vo.MenuTreeVO;
@@ -45,6 +46,9 @@ public class MenuServiceImpl implements MenuService {
     @Resource
     private RedisUtils redisUtils;
 
+    @Resource
+    private PermissionCatalogService permissionCatalogService;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createMenu(MenuCreateDTO createDTO) {
@@ -545,6 +549,8 @@ public class MenuServiceImpl implements MenuService {
 
         redisUtils.delete(enabledMenusKey);
         redisUtils.delete(menuTreeKey);
+        redisUtils.publishAfterCommit(Constants.CacheKey.DATA_CHANGE_CHANNEL, Constants.DataChange.MENU);
+        permissionCatalogService.invalidate();
 
         log.debug("清除菜单相关缓存");
     }
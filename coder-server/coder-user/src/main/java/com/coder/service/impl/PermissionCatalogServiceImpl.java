@@ -0,0 +1,122 @@
+package com.coder.service.impl;
+
+import com.coder.exception.BusinessException;
+import com.coder.mapper.MenuMapper;
+import com.coder.result.ResultCode;
+import com.coder.service.MenuService;
+import com.coder.service.PermissionCatalogService;
+import com.coder.vo.PermissionBitsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 权限目录服务实现类
+ * 目录在本地缓存，菜单变更时立即失效，其余情况按固定间隔重新加载，
+ * 以便感知其他实例上的菜单变更
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+@Slf4j
+@Service
+public class PermissionCatalogServiceImpl implements PermissionCatalogService {
+
+    /**
+     * 目录重新加载间隔
+     */
+    private static final long RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    @Resource
+    private MenuMapper menuMapper;
+
+    @Resource
+    private MenuService menuService;
+
+    private volatile Catalog catalog;
+
+    @Override
+    public long getVersion() {
+        return current().version;
+    }
+
+    @Override
+    public int indexOf(String permission) {
+        Integer index = current().indexes.get(permission);
+        return index != null ? index : -1;
+    }
+
+    @Override
+    public PermissionBitsVO getPermissionBits(Long userId) {
+        if (userId == null) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "用户ID不能为空");
+        }
+
+        Catalog current = current();
+        BitSet bits = new BitSet(current.indexes.size());
+        for (String permission : menuService.getPermissionsByUserId(userId)) {
+            Integer index = current.indexes.get(permission);
+            if (index != null) {
+                bits.set(index);
+            }
+        }
+
+        PermissionBitsVO bitsVO = new PermissionBitsVO();
+        bitsVO.setUserId(userId);
+        bitsVO.setVersion(current.version);
+        bitsVO.setBitmap(Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()));
+        return bitsVO;
+    }
+
+    @Override
+    public void invalidate() {
+        catalog = null;
+        log.debug("权限目录已失效");
+    }
+
+    private Catalog current() {
+        Catalog current = catalog;
+        if (current == null || System.nanoTime() - current.loadedAt > RELOAD_INTERVAL_NANOS) {
+            current = load();
+            catalog = current;
+        }
+        return current;
+    }
+
+    private Catalog load() {
+        List<String> permissions = menuMapper.selectAllPermissions();
+        Map<String, Integer> indexes = new HashMap<>(permissions.size() * 2);
+        CRC32 crc32 = new CRC32();
+        for (int i = 0; i < permissions.size(); i++) {
+            String permission = permissions.get(i);
+            indexes.put(permission, i);
+            crc32.update((permission + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        log.debug("加载权限目录，权限数量：{}，版本：{}", permissions.size(), crc32.getValue());
+        return new Catalog(indexes, crc32.getValue(), System.nanoTime());
+    }
+
+    /**
+     * 权限目录快照
+     */
+    private static class Catalog {
+        private final Map<String, Integer> indexes;
+        private final long version;
+        private final long loadedAt;
+
+        Catalog(Map<String, Integer> indexes, long version, long loadedAt) {
+            this.indexes = indexes;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -449,6 +449,7 @@ public class RoleMenuServiceImpl implements RoleMenuService {
             String roleMenuDetailKey = Constants.CacheKey.USER_PREFIX + "role_menu_detail:" + roleId;
 
             redisUtils.delete(roleMenuDetailKey);
+            redisUtils.publishAfterCommit(Constants.CacheKey.DATA_CHANGE_CHANNEL, Constants.DataChange.ROLE_MENU);
 
             log.debug("清除角色菜单缓存，角色ID：{}", roleId);
         }
@@ -364,6 +364,7 @@ public class RoleServiceImpl implements RoleService {
 
             redisUtils.delete(roleInfoKey);
             redisUtils.delete(enabledRolesKey);
+            redisUtils.publishAfterCommit(Constants.CacheKey.DATA_CHANGE_CHANNEL, Constants.DataChange.ROLE);
 
             log.debug("清除角色缓存，角色ID：{}", roleId);
         }
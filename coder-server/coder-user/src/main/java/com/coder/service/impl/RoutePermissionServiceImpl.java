@@ -0,0 +1,213 @@
+package com.coder.service.impl;
+
+import com.coder.annotation.RequiresPermission;
+import com.coder.annotation.RequiresPermissions;
+import com.coder.service.PermissionCatalogService;
+import com.coder.service.RoutePermissionService;
+import com.coder.vo.RoutePermissionTableVO;
+import com.coder.vo.RoutePermissionVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.annotation.Resource;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 接口权限表服务实现类
+ *
+ * 启动后首次访问时扫描RequestMappingHandlerMapping，按PermissionAspect的规则取每个接口的权限要求：
+ * 方法上的@RequiresPermission、@RequiresPermissions，方法上都没有时取类上的@RequiresPermissions。
+ * 角色要求（@RequiresRoles）网关无法判断，按不要求权限处理，仍由PermissionAspect检查。
+ *
+ * 路径模式转换为PathPatternMatcher语法：路径变量替换为*，末尾的{*name}替换为**。
+ * 无法等价转换的模式（带正则的路径变量、段内通配符、中间的**）放宽为更大的范围，
+ * 并视为不要求权限，保证网关只会少拒绝、不会多拒绝。
+ *
+ * @author Sunset
+ * @date 2025-8-17
+ */
+@Slf4j
+@Service
+public class RoutePermissionServiceImpl implements RoutePermissionService {
+
+    @Resource(name = "requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Resource
+    private PermissionCatalogService permissionCatalogService;
+
+    /**
+     * 扫描得到的接口列表（不含权限下标），接口在运行期间不变
+     */
+    private volatile List<RoutePermissionVO> routes;
+
+    /**
+     * 接口列表的校验值
+     */
+    private volatile long routesChecksum;
+
+    private volatile RoutePermissionTableVO table;
+
+    @Override
+    public long getVersion() {
+        return current().getVersion();
+    }
+
+    @Override
+    public RoutePermissionTableVO getTable() {
+        return current();
+    }
+
+    private RoutePermissionTableVO current() {
+        long catalogVersion = permissionCatalogService.getVersion();
+        RoutePermissionTableVO current = table;
+        if (current == null || current.getCatalogVersion() != catalogVersion) {
+            current = build(catalogVersion);
+            table = current;
+        }
+        return current;
+    }
+
+    private RoutePermissionTableVO build(long catalogVersion) {
+        if (routes == null) {
+            scan();
+        }
+
+        List<RoutePermissionVO> indexed = new ArrayList<>(routes.size());
+        for (RoutePermissionVO route : routes) {
+            RoutePermissionVO copy = new RoutePermissionVO();
+            copy.setMethods(route.getMethods());
+            copy.setPatterns(route.getPatterns());
+            copy.setPermissions(route.getPermissions());
+            copy.setRequireAll(route.getRequireAll());
+            List<Integer> indexes = new ArrayList<>(route.getPermissions().size());
+            for (String permission : route.getPermissions()) {
+                indexes.add(permissionCatalogService.indexOf(permission));
+            }
+            copy.setIndexes(indexes);
+            indexed.add(copy);
+        }
+
+        RoutePermissionTableVO tableVO = new RoutePermissionTableVO();
+        tableVO.setVersion(routesChecksum * 31 + catalogVersion);
+        tableVO.setCatalogVersion(catalogVersion);
+        tableVO.setRoutes(Collections.unmodifiableList(indexed));
+        return tableVO;
+    }
+
+    private synchronized void scan() {
+        if (routes != null) {
+            return;
+        }
+
+        List<RoutePermissionVO> scanned = new ArrayList<>();
+        CRC32 crc32 = new CRC32();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            RoutePermissionVO route = toRoute(entry.getKey(), entry.getValue());
+            scanned.add(route);
+            String line = route.getMethods() + "|" + route.getPatterns() + "|" + route.getPermissions()
+                    + "|" + route.getRequireAll() + "\n";
+            crc32.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+
+        log.info("扫描接口权限表，接口数量：{}，需要权限的接口数量：{}", scanned.size(),
+                scanned.stream().filter(route -> !route.getPermissions().isEmpty()).count());
+        this.routesChecksum = crc32.getValue();
+        this.routes = scanned;
+    }
+
+    private RoutePermissionVO toRoute(RequestMappingInfo info, HandlerMethod handlerMethod) {
+        List<String> methods = new ArrayList<>();
+        for (RequestMethod method : info.getMethodsCondition().getMethods()) {
+            methods.add(method.name());
+        }
+        Collections.sort(methods);
+
+        List<String> permissions = Collections.emptyList();
+        boolean requireAll = true;
+        Method method = handlerMethod.getMethod();
+        RequiresPermission requiresPermission = method.getAnnotation(RequiresPermission.class);
+        RequiresPermissions requiresPermissions = method.getAnnotation(RequiresPermissions.class);
+        if (requiresPermission == null && requiresPermissions == null) {
+            requiresPermissions = handlerMethod.getBeanType().getAnnotation(RequiresPermissions.class);
+        }
+        if (requiresPermission != null) {
+            permissions = Arrays.asList(requiresPermission.value());
+            requireAll = requiresPermission.logical() == RequiresPermission.Logical.AND;
+        } else if (requiresPermissions != null) {
+            permissions = Arrays.asList(requiresPermissions.value());
+            requireAll = requiresPermissions.logical() == RequiresPermissions.Logical.AND;
+        }
+
+        List<String> patterns = new ArrayList<>();
+        boolean exact = true;
+        for (String pattern : info.getPatternValues()) {
+            StringBuilder converted = new StringBuilder();
+            exact &= convertPattern(pattern, converted);
+            patterns.add(converted.toString());
+        }
+        Collections.sort(patterns);
+
+        RoutePermissionVO route = new RoutePermissionVO();
+        route.setMethods(methods);
+        route.setPatterns(patterns);
+        // 模式被放宽后可能匹配到其他接口，不能据此拒绝
+        route.setPermissions(exact ? permissions : Collections.emptyList());
+        route.setRequireAll(requireAll);
+        return route;
+    }
+
+    /**
+     * 将Spring MVC路径模式转换为PathPatternMatcher语法
+     *
+     * @param pattern   Spring MVC路径模式
+     * @param converted 转换结果
+     * @return 是否等价转换，false表示结果比原模式匹配范围更大
+     */
+    private static boolean convertPattern(String pattern, StringBuilder converted) {
+        boolean exact = true;
+        String[] segments = pattern.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if ("**".equals(segment) || (segment.startsWith("{*") && segment.endsWith("}"))) {
+                // "**"只能出现在末尾，中间的"**"放宽为前缀匹配
+                converted.append("/**");
+                return exact && i == segments.length - 1;
+            }
+            if ("*".equals(segment) || isPlainVariable(segment)) {
+                converted.append("/*");
+            } else if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+                converted.append("/*");
+                exact = false;
+            } else {
+                converted.append('/').append(segment);
+            }
+        }
+        if (converted.length() == 0) {
+            converted.append('/');
+        }
+        return exact;
+    }
+
+    /**
+     * 是否为不带正则的整段路径变量，如{id}
+     */
+    private static boolean isPlainVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf(':') < 0 && segment.indexOf('{', 1) < 0;
+    }
+}
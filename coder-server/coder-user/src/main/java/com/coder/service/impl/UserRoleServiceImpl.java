@@ -397,6 +397,7 @@ public class UserRoleServiceImpl implements UserRoleService {
             redisUtils.delete(roleDetailKey);
             redisUtils.delete(userMenuTreeKey);
             redisUtils.delete(userPermissionsKey);
+            redisUtils.publishAfterCommit(Constants.CacheKey.DATA_CHANGE_CHANNEL, Constants.DataChange.USER_ROLE);
 
             log.debug("清除用户角色缓存，用户ID：{}", userId);
         }
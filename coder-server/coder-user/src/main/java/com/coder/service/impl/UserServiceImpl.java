@@ -17,6 +17,7 @@ import com.coder.utils.RedisUtils;
 import com.coder.utils.StrUtils;
 import com.coder.vo.MenuTreeVO;
 import com.coder.vo.RoleVO;
+import com.coder.vo.UserAuthenticationVO;
 import com.coder.vo.UserPermissionVO;
 import com.coder.vo.UserVO;
 import com.github.pagehelper.PageHelper;
@@ -100,6 +101,47 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public UserAuthenticationVO authenticate(String username, String password) {
+        log.info("认证用户，用户名：{}", username);
+
+        UserAuthenticationVO authentication = new UserAuthenticationVO();
+        if (StrUtils.isBlank(username) || StrUtils.isBlank(password)) {
+            authentication.setResult(Constants.User.AUTH_BAD_CREDENTIALS);
+            return authentication;
+        }
+
+        User user = userMapper.selectByUsername(username);
+        if (user == null) {
+            log.warn("用户不存在，用户名：{}", username);
+            authentication.setResult(Constants.User.AUTH_UNKNOWN_ACCOUNT);
+            return authentication;
+        }
+
+        // 先校验密码再检查状态，避免未持有密码的调用方探测账户状态
+        if (!passwordEncoder.matches(password + user.getSalt(), user.getPassword())) {
+            log.warn("密码验证失败，用户名：{}", username);
+            authentication.setResult(Constants.User.AUTH_BAD_CREDENTIALS);
+            return authentication;
+        }
+        if (Constants.User.STATUS_LOCKED.equals(user.getStatus())) {
+            log.warn("用户账户被锁定，用户名：{}", username);
+            authentication.setResult(Constants.User.AUTH_LOCKED);
+            return authentication;
+        }
+        if (!Constants.ENABLED.equals(user.getStatus())) {
+            log.warn("用户账户被禁用，用户名：{}", username);
+            authentication.setResult(Constants.User.AUTH_DISABLED);
+            return authentication;
+        }
+
+        authentication.setResult(Constants.User.AUTH_SUCCESS);
+        authentication.setUser(convertToVO(user));
+        authentication.setPermissions(getUserPermissionInfo(user.getId()));
+        log.info("用户认证成功，用户名：{}", username);
+        return authentication;
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createUser(UserCreateDTO createDTO) {
@@ -360,6 +402,8 @@ public class UserServiceImpl implements UserService {
             redisUtils.delete(userInfoKey);
             redisUtils.delete(userTokenKey);
             redisUtils.delete(userLoginKey);
+            redisUtils.publish(Constants.CacheKey.USER_LOGIN_CHANNEL, String.valueOf(userId));
+            redisUtils.publishAfterCommit(Constants.CacheKey.DATA_CHANGE_CHANNEL, Constants.DataChange.USER);
 
             log.debug("清除用户缓存，用户ID：{}", userId);
         }